@@ -0,0 +1,87 @@
+package benchmark;
+
+import com.google.zxing.Binarizer;
+import com.google.zxing.BinaryBitmap;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.MultiFormatReader;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.Result;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.GlobalHistogramBinarizer;
+import com.google.zxing.common.HybridBinarizer;
+import model.CodeFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link HybridBinarizer} versus {@link GlobalHistogramBinarizer}, both for the
+ * binarization alone and for a full decode, on every corpus variant
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BinarizerBenchmark {
+
+    public enum BinarizerType {
+        HYBRID,
+        GLOBAL_HISTOGRAM
+    }
+
+    @Param({"HYBRID", "GLOBAL_HISTOGRAM"})
+    public BinarizerType binarizer;
+
+    @Param({"CLEAN", "NOISY", "ROTATED", "LOW_CONTRAST"})
+    public SyntheticCorpus.Variant variant;
+
+    @Param({"600", "2000"})
+    public int size;
+
+    private LuminanceSource source;
+    private MultiFormatReader reader;
+
+    @Setup
+    public void setUp() {
+        BufferedImage image = SyntheticCorpus.image(CodeFormat.QR_CODE, variant, size);
+        source = new BufferedImageLuminanceSource(image);
+        reader = new MultiFormatReader();
+        reader.setHints(null);
+    }
+
+    private Binarizer newBinarizer() {
+        return binarizer == BinarizerType.HYBRID
+                ? new HybridBinarizer(source)
+                : new GlobalHistogramBinarizer(source);
+    }
+
+    @Benchmark
+    public BitMatrix binarize() throws NotFoundException {
+        return newBinarizer().getBlackMatrix();
+    }
+
+    @Benchmark
+    public Result binarizeAndDecode(DecodeOutcomes outcomes) {
+        try {
+            return outcomes.record(reader.decodeWithState(new BinaryBitmap(newBinarizer())));
+        } catch (NotFoundException e) {
+            return outcomes.record(null);
+        } finally {
+            reader.reset();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Decode outcomes reported next to the timings
+ * A change that stops a variant decoding then shows up as misses instead of as a speed-up
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class DecodeOutcomes {
+
+    public long decoded;
+    public long missed;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        decoded = 0;
+        missed = 0;
+    }
+
+    /**
+     * Count one attempt and pass its result through; not public, which would make it a counter
+     *
+     * @param result The result, or null if nothing was found
+     * @return The result
+     */
+    <T> T record(T result) {
+        if (result == null) {
+            missed++;
+        } else {
+            decoded++;
+        }
+        return result;
+    }
+}
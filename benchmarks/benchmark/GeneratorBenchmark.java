@@ -0,0 +1,88 @@
+package benchmark;
+
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import factory.CodeGeneratorFactory;
+import model.CodeFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import service.BitMatrixPngWriter;
+import service.ICodeGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding cost of every {@link ICodeGenerator} implementation across image sizes
+ * Separates matrix encoding from PNG compression and from the full write to disk
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GeneratorBenchmark {
+
+    @Param({"QR_CODE", "CODE_128", "CODE_39", "EAN_13", "EAN_8", "UPC_A", "UPC_E"})
+    public CodeFormat format;
+
+    @Param({"200", "600", "1000"})
+    public int size;
+
+    private ICodeGenerator generator;
+    private String data;
+    private int height;
+    private BitMatrix matrix;
+    private Path output;
+
+    @Setup
+    public void setUp() throws WriterException, IOException {
+        generator = CodeGeneratorFactory.createGenerator(format);
+        data = SyntheticCorpus.SAMPLE_DATA.get(format);
+        height = format == CodeFormat.QR_CODE ? size : size / 2;
+        matrix = generator.generateMatrix(data, size, height);
+        output = Files.createTempFile("bench-generate", ".png");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(output);
+    }
+
+    @Benchmark
+    public BitMatrix encodeMatrix() throws WriterException {
+        return generator.generateMatrix(data, size, height);
+    }
+
+    @Benchmark
+    public int writePngImageIo() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MatrixToImageWriter.writeToStream(matrix, "PNG", out);
+        return out.size();
+    }
+
+    @Benchmark
+    public int writePng1Bit() {
+        return BitMatrixPngWriter.toBytes(matrix).length;
+    }
+
+    @Benchmark
+    public Path generateToFile() throws WriterException, IOException {
+        return generator.generateCode(data, output.toString(), size, height);
+    }
+}
@@ -0,0 +1,112 @@
+package benchmark;
+
+import model.CodeFormat;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import service.CodeHttpService;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local load test of {@link CodeHttpService}: many concurrent clients against an in-process server
+ * on a loopback port, so no external services are needed
+ * The counters show how many requests were answered and how many were shed with 503
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+public class HttpServiceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Server {
+
+        @Param({"4"})
+        public int cpuThreads;
+
+        @Param({"16"})
+        public int queueCapacity;
+
+        CodeHttpService service;
+        HttpClient client;
+        URI decodeUri;
+        URI encodeUri;
+        byte[] image;
+
+        @Setup(Level.Trial)
+        public void start() throws IOException {
+            service = new CodeHttpService(new InetSocketAddress("localhost", 0), cpuThreads, queueCapacity,
+                    CodeHttpService.DEFAULT_MAX_BODY_BYTES);
+            service.start();
+            client = HttpClient.newHttpClient();
+            decodeUri = URI.create("http://localhost:" + service.getPort() + "/decode");
+            encodeUri = URI.create("http://localhost:" + service.getPort() + "/encode?data=benchmark&size=300");
+            image = SyntheticCorpus.png(CodeFormat.QR_CODE, SyntheticCorpus.Variant.CLEAN, 600);
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            service.close();
+        }
+    }
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Outcomes {
+        public long ok;
+        public long shed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            ok = 0;
+            shed = 0;
+        }
+
+        void record(int status) {
+            if (status == 503) {
+                shed++;
+            } else {
+                ok++;
+            }
+        }
+    }
+
+    @Benchmark
+    public int decode(Server server, Outcomes outcomes) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(server.decodeUri)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(server.image))
+                .build();
+        int status = server.client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        outcomes.record(status);
+        return status;
+    }
+
+    @Benchmark
+    public int encode(Server server, Outcomes outcomes) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(server.encodeUri).GET().build();
+        int status = server.client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        outcomes.record(status);
+        return status;
+    }
+}
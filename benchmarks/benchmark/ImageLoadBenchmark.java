@@ -0,0 +1,109 @@
+package benchmark;
+
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import model.CodeFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import service.ImageLoader;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Image loading cost: the generic {@code ImageIO.read} path versus
+ * in-memory streams and a reused, pre-selected {@link ImageReader}
+ * The luminance benchmarks compare what a reader needs end to end: ImageIO plus
+ * {@link BufferedImageLuminanceSource} against {@link ImageLoader}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ImageLoadBenchmark {
+
+    @Param({"png", "jpg"})
+    public String encoding;
+
+    @Param({"600", "2000"})
+    public int size;
+
+    private byte[] bytes;
+    private Path file;
+    private ImageReader cachedReader;
+
+    @Setup
+    public void setUp() throws IOException {
+        bytes = "png".equals(encoding)
+                ? SyntheticCorpus.png(CodeFormat.QR_CODE, SyntheticCorpus.Variant.NOISY, size)
+                : SyntheticCorpus.jpeg(CodeFormat.QR_CODE, SyntheticCorpus.Variant.NOISY, size);
+        file = Files.createTempFile("bench-load", "." + encoding);
+        Files.write(file, bytes);
+        cachedReader = ImageIO.getImageReadersBySuffix(encoding).next();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        cachedReader.dispose();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public BufferedImage imageIoReadFile() throws IOException {
+        return ImageIO.read(file.toFile());
+    }
+
+    @Benchmark
+    public BufferedImage imageIoReadBytes() throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(bytes));
+    }
+
+    @Benchmark
+    public LuminanceSource imageIoLuminanceFile() throws IOException {
+        return new BufferedImageLuminanceSource(ImageIO.read(file.toFile()));
+    }
+
+    @Benchmark
+    public LuminanceSource loaderLuminanceFile() throws IOException {
+        return ImageLoader.loadLuminance(file);
+    }
+
+    @Benchmark
+    public LuminanceSource loaderLuminanceBytes() throws IOException {
+        return ImageLoader.loadLuminance(ByteBuffer.wrap(bytes));
+    }
+
+    @Benchmark
+    public LuminanceSource loaderLuminanceQuarter() throws IOException {
+        return ImageLoader.loadLuminance(file, size / 4);
+    }
+
+    @Benchmark
+    public BufferedImage cachedReaderBytes() throws IOException {
+        try (ImageInputStream input = new MemoryCacheImageInputStream(new ByteArrayInputStream(bytes))) {
+            cachedReader.setInput(input, true, true);
+            return cachedReader.read(0);
+        }
+    }
+}
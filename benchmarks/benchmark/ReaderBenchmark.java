@@ -0,0 +1,97 @@
+package benchmark;
+
+import com.google.zxing.NotFoundException;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import model.CodeFormat;
+import model.DecodeResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import service.ICodeReader;
+import service.impl.MultiFormatReaderImpl;
+import service.impl.QRCodeReaderImpl;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end decode cost of {@link QRCodeReaderImpl} versus {@link MultiFormatReaderImpl}
+ * on every corpus variant; failed decodes are measured too, since they are often the slow case,
+ * and are counted by {@link DecodeOutcomes} so a variant that stops decoding is visible
+ * {@code readLuminance} decodes a preloaded plane as a camera frame would arrive; run it with
+ * {@code -prof gc} to see the allocation per frame
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReaderBenchmark {
+
+    public enum ReaderType {
+        QR_CODE,
+        MULTI_FORMAT
+    }
+
+    @Param({"QR_CODE", "MULTI_FORMAT"})
+    public ReaderType reader;
+
+    @Param({"CLEAN", "NOISY", "ROTATED", "LOW_CONTRAST"})
+    public SyntheticCorpus.Variant variant;
+
+    @Param({"600"})
+    public int size;
+
+    private ICodeReader codeReader;
+    private Path image;
+    private byte[] luminance;
+    private int width;
+    private int height;
+
+    @Setup
+    public void setUp() throws IOException {
+        codeReader = reader == ReaderType.QR_CODE ? new QRCodeReaderImpl() : new MultiFormatReaderImpl();
+        image = Files.createTempFile("bench-read", ".png");
+        Files.write(image, SyntheticCorpus.png(CodeFormat.QR_CODE, variant, size));
+        BufferedImage frame = SyntheticCorpus.image(CodeFormat.QR_CODE, variant, size);
+        luminance = new BufferedImageLuminanceSource(frame).getMatrix();
+        width = frame.getWidth();
+        height = frame.getHeight();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(image);
+    }
+
+    @Benchmark
+    public DecodeResult readResult(DecodeOutcomes outcomes) throws IOException {
+        try {
+            return outcomes.record(codeReader.readResult(image.toString()));
+        } catch (NotFoundException e) {
+            return outcomes.record(null);
+        }
+    }
+
+    @Benchmark
+    public DecodeResult readLuminance(DecodeOutcomes outcomes) {
+        try {
+            return outcomes.record(codeReader.readLuminance(luminance, width, height, width));
+        } catch (NotFoundException e) {
+            return outcomes.record(null);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package benchmark;
+
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import factory.CodeGeneratorFactory;
+import model.CodeFormat;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Deterministic set of synthetic test images for the benchmarks
+ * Each variant models a class of real-world input so regressions show up per condition
+ */
+public final class SyntheticCorpus {
+
+    /**
+     * Image conditions covered by the corpus
+     */
+    public enum Variant {
+        CLEAN,
+        NOISY,
+        ROTATED,
+        LOW_CONTRAST
+    }
+
+    /**
+     * Sample data that is valid for each generator format
+     */
+    public static final Map<CodeFormat, String> SAMPLE_DATA = Map.of(
+            CodeFormat.QR_CODE, "https://example.com/warehouse/label/000123456789",
+            CodeFormat.CODE_128, "SHIP-0042-ABC",
+            CodeFormat.CODE_39, "PART-42",
+            CodeFormat.EAN_13, "590123412345",
+            CodeFormat.EAN_8, "9638507",
+            CodeFormat.UPC_A, "03600029145",
+            CodeFormat.UPC_E, "0123456");
+
+    private static final long SEED = 42L;
+
+    private SyntheticCorpus() {
+    }
+
+    /**
+     * Render a code image for the given format and condition
+     *
+     * @param format  The code format
+     * @param variant The image condition to simulate
+     * @param size    Width of the image; 1D codes are half as tall
+     * @return The rendered image
+     */
+    public static BufferedImage image(CodeFormat format, Variant variant, int size) {
+        int height = format == CodeFormat.QR_CODE ? size : size / 2;
+        BitMatrix matrix;
+        try {
+            matrix = CodeGeneratorFactory.createGenerator(format)
+                    .generateMatrix(SAMPLE_DATA.get(format), size, height);
+        } catch (WriterException e) {
+            throw new IllegalStateException("Sample data must encode", e);
+        }
+        BufferedImage clean = toRgb(MatrixToImageWriter.toBufferedImage(matrix));
+
+        return switch (variant) {
+            case CLEAN -> clean;
+            case NOISY -> addNoise(clean, 40);
+            case ROTATED -> rotate(clean, 12);
+            case LOW_CONTRAST -> compress(clean, 100, 160);
+        };
+    }
+
+    /**
+     * Render a code image and encode it as PNG bytes
+     *
+     * @param format  The code format
+     * @param variant The image condition to simulate
+     * @param size    Width of the image
+     * @return PNG file contents
+     */
+    public static byte[] png(CodeFormat format, Variant variant, int size) {
+        return encode(image(format, variant, size), "png");
+    }
+
+    /**
+     * Render a code image and encode it as JPEG bytes
+     *
+     * @param format  The code format
+     * @param variant The image condition to simulate
+     * @param size    Width of the image
+     * @return JPEG file contents
+     */
+    public static byte[] jpeg(CodeFormat format, Variant variant, int size) {
+        return encode(image(format, variant, size), "jpg");
+    }
+
+    private static byte[] encode(BufferedImage image, String formatName) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, formatName, out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static BufferedImage toRgb(BufferedImage source) {
+        BufferedImage rgb = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        g.drawImage(source, 0, 0, null);
+        g.dispose();
+        return rgb;
+    }
+
+    private static BufferedImage addNoise(BufferedImage source, int amplitude) {
+        Random random = new Random(SEED);
+        BufferedImage noisy = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < source.getHeight(); y++) {
+            for (int x = 0; x < source.getWidth(); x++) {
+                int gray = source.getRGB(x, y) & 0xFF;
+                int value = clamp(gray + (int) (random.nextGaussian() * amplitude));
+                noisy.setRGB(x, y, value << 16 | value << 8 | value);
+            }
+        }
+        return noisy;
+    }
+
+    private static BufferedImage rotate(BufferedImage source, double degrees) {
+        double radians = Math.toRadians(degrees);
+        double sin = Math.abs(Math.sin(radians));
+        double cos = Math.abs(Math.cos(radians));
+        int w = (int) Math.ceil(source.getWidth() * cos + source.getHeight() * sin);
+        int h = (int) Math.ceil(source.getHeight() * cos + source.getWidth() * sin);
+
+        BufferedImage rotated = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rotated.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, w, h);
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.translate(w / 2.0, h / 2.0);
+        g.rotate(radians);
+        g.drawImage(source, -source.getWidth() / 2, -source.getHeight() / 2, null);
+        g.dispose();
+        return rotated;
+    }
+
+    private static BufferedImage compress(BufferedImage source, int dark, int light) {
+        BufferedImage dim = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < source.getHeight(); y++) {
+            for (int x = 0; x < source.getWidth(); x++) {
+                int gray = source.getRGB(x, y) & 0xFF;
+                int value = dark + gray * (light - dark) / 255;
+                dim.setRGB(x, y, value << 16 | value << 8 | value);
+            }
+        }
+        return dim;
+    }
+
+    private static int clamp(int value) {
+        return Math.max(0, Math.min(255, value));
+    }
+}
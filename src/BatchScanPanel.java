@@ -0,0 +1,394 @@
+import com.google.zxing.NotFoundException;
+import factory.CodeReaderFactory;
+import model.BatchReadResult;
+import model.BatchSummary;
+import service.BatchCodeReader;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.TableRowSorter;
+import java.awt.*;
+import java.awt.datatransfer.DataFlavor;
+import java.awt.datatransfer.UnsupportedFlavorException;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
+
+/**
+ * Batch tab of the GUI: files and folders dropped on the table are decoded concurrently
+ * with {@link BatchCodeReader} and the results are appended as they complete
+ * The table model only holds the results; JTable renders just the visible rows,
+ * so tens of thousands of entries stay cheap
+ */
+public class BatchScanPanel extends JPanel {
+
+    private final BatchTableModel tableModel = new BatchTableModel();
+    private final JTable table = new JTable(tableModel);
+    private final JProgressBar progressBar = new JProgressBar(0, 100);
+    private final JLabel statusLabel = new JLabel("Drop image files or folders onto the table.");
+    private final JButton addButton = new JButton("Add Files…");
+    private final JButton cancelButton = new JButton("Cancel");
+    private final JButton exportButton = new JButton("Export CSV…");
+    private final JButton clearButton = new JButton("Clear");
+
+    private BatchWorker worker;
+
+    public BatchScanPanel() {
+        super(new BorderLayout(10, 10));
+        setOpaque(false);
+        setBorder(new EmptyBorder(10, 10, 10, 10));
+
+        JLabel intro = new JLabel("Decode many images at once. Drop files or folders below.");
+        intro.setFont(intro.getFont().deriveFont(Font.BOLD, intro.getFont().getSize() + 1f));
+        add(intro, BorderLayout.NORTH);
+
+        table.setRowSorter(new TableRowSorter<>(tableModel));
+        table.setFillsViewportHeight(true);
+        table.getColumnModel().getColumn(0).setPreferredWidth(180);
+        table.getColumnModel().getColumn(1).setPreferredWidth(70);
+        table.getColumnModel().getColumn(2).setPreferredWidth(90);
+        table.getColumnModel().getColumn(3).setPreferredWidth(220);
+        table.getColumnModel().getColumn(4).setPreferredWidth(60);
+
+        JScrollPane tableScroll = new JScrollPane(table);
+        tableScroll.setPreferredSize(new Dimension(620, 260));
+        // Dropping onto empty space below the rows should work too
+        FileDropHandler dropHandler = new FileDropHandler();
+        table.setTransferHandler(dropHandler);
+        tableScroll.setTransferHandler(dropHandler);
+        add(tableScroll, BorderLayout.CENTER);
+
+        addButton.addActionListener(e -> chooseFiles());
+        cancelButton.setEnabled(false);
+        cancelButton.addActionListener(e -> cancel());
+        exportButton.setEnabled(false);
+        exportButton.addActionListener(e -> exportCsv());
+        clearButton.addActionListener(e -> clear());
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 0));
+        buttonPanel.setOpaque(false);
+        buttonPanel.add(addButton);
+        buttonPanel.add(cancelButton);
+        buttonPanel.add(exportButton);
+        buttonPanel.add(clearButton);
+
+        progressBar.setStringPainted(true);
+        progressBar.setString(" ");
+
+        JPanel south = new JPanel(new GridLayout(0, 1, 0, 6));
+        south.setOpaque(false);
+        south.add(buttonPanel);
+        south.add(progressBar);
+        south.add(statusLabel);
+        add(south, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Decode the given files and every image inside the given folders
+     * Ignored while a batch is already running
+     *
+     * @param paths Files and folders to scan
+     */
+    public void scan(List<Path> paths) {
+        if (worker != null || paths.isEmpty()) {
+            return;
+        }
+        addButton.setEnabled(false);
+        clearButton.setEnabled(false);
+        exportButton.setEnabled(false);
+        cancelButton.setEnabled(true);
+        progressBar.setIndeterminate(true);
+        progressBar.setString("Collecting files…");
+        statusLabel.setText(" ");
+
+        worker = new BatchWorker(List.copyOf(paths));
+        worker.execute();
+    }
+
+    private void cancel() {
+        if (worker != null) {
+            worker.cancel(true);
+        }
+    }
+
+    private void finish(BatchWorker finished) {
+        worker = null;
+        addButton.setEnabled(true);
+        clearButton.setEnabled(true);
+        cancelButton.setEnabled(false);
+        exportButton.setEnabled(tableModel.getRowCount() > 0);
+        progressBar.setIndeterminate(false);
+        progressBar.setValue(0);
+        progressBar.setString(" ");
+
+        if (finished.isCancelled()) {
+            statusLabel.setText("Batch cancelled after " + tableModel.getRowCount() + " files.");
+            return;
+        }
+        try {
+            BatchSummary summary = finished.get();
+            statusLabel.setText(summary.toString());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            statusLabel.setText("Batch failed: " + cause.getMessage());
+        } catch (InterruptedException | CancellationException e) {
+            // get() does not block once done() runs; nothing to report
+        }
+    }
+
+    private void chooseFiles() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Select Images or Folders");
+        chooser.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
+        chooser.setMultiSelectionEnabled(true);
+        if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+            scan(Stream.of(chooser.getSelectedFiles()).map(File::toPath).toList());
+        }
+    }
+
+    private void clear() {
+        tableModel.clear();
+        exportButton.setEnabled(false);
+        statusLabel.setText("Drop image files or folders onto the table.");
+    }
+
+    private void exportCsv() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export Results");
+        chooser.setFileFilter(new FileNameExtensionFilter("CSV Files", "csv"));
+        chooser.setSelectedFile(new File("batch-results.csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File selected = chooser.getSelectedFile();
+        Path target = selected.getName().toLowerCase(Locale.ROOT).endsWith(".csv")
+                ? selected.toPath()
+                : selected.toPath().resolveSibling(selected.getName() + ".csv");
+
+        // Snapshot in the current sort order on the EDT; the file is written off it
+        List<BatchReadResult> rows = new ArrayList<>(table.getRowCount());
+        for (int i = 0; i < table.getRowCount(); i++) {
+            rows.add(tableModel.get(table.convertRowIndexToModel(i)));
+        }
+        exportButton.setEnabled(false);
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws IOException {
+                writeCsv(rows, target);
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                exportButton.setEnabled(tableModel.getRowCount() > 0);
+                try {
+                    get();
+                    statusLabel.setText("Exported " + rows.size() + " rows to " + target);
+                } catch (ExecutionException e) {
+                    JOptionPane.showMessageDialog(BatchScanPanel.this,
+                            "Unable to export: " + e.getCause().getMessage(),
+                            "Export Error",
+                            JOptionPane.ERROR_MESSAGE);
+                } catch (InterruptedException | CancellationException e) {
+                    // Export is never cancelled
+                }
+            }
+        }.execute();
+    }
+
+    private static void writeCsv(List<BatchReadResult> rows, Path target) throws IOException {
+        try (Writer out = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+            out.write("file,status,format,text,time_ms\n");
+            for (BatchReadResult row : rows) {
+                out.write(csvField(row.file().toString()));
+                out.write(',');
+                out.write(csvField(status(row)));
+                out.write(',');
+                out.write(row.result() == null ? "" : csvField(String.valueOf(row.result().barcodeFormat())));
+                out.write(',');
+                out.write(row.text() == null ? "" : csvField(row.text()));
+                out.write(',');
+                out.write(String.format(Locale.ROOT, "%.2f", row.latencyMillis()));
+                out.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Quote a field when it contains a separator, quote or line break (RFC 4180)
+     */
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static String status(BatchReadResult row) {
+        if (row.isSuccess()) {
+            return "OK";
+        }
+        if (row.error() instanceof NotFoundException) {
+            return "No code found";
+        }
+        return "Error: " + row.error().getMessage();
+    }
+
+    /**
+     * Expand folders (recursively) into the image files they contain
+     */
+    private static List<Path> collectImages(List<Path> paths) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (Path path : paths) {
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> walk = Files.walk(path)) {
+                    walk.filter(Files::isRegularFile).filter(BatchCodeReader::isImageFile).forEach(files::add);
+                }
+            } else if (Files.isRegularFile(path)) {
+                files.add(path);
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Runs one batch; results are published in chunks and appended on the EDT
+     */
+    private final class BatchWorker extends SwingWorker<BatchSummary, BatchReadResult> {
+
+        private final List<Path> paths;
+        private int total;
+        private int completed;
+
+        BatchWorker(List<Path> paths) {
+            this.paths = paths;
+        }
+
+        @Override
+        protected BatchSummary doInBackground() throws IOException, InterruptedException {
+            List<Path> files = collectImages(paths);
+            total = files.size();
+            try (BatchCodeReader batch = new BatchCodeReader(CodeReaderFactory.createMultiFormatReader())) {
+                return batch.readAll(files, this::publish);
+            }
+        }
+
+        @Override
+        protected void process(List<BatchReadResult> chunk) {
+            if (this != worker) {
+                return;
+            }
+            // Results arriving between two EDT turns are inserted with a single event
+            tableModel.addAll(chunk);
+            completed += chunk.size();
+            progressBar.setIndeterminate(false);
+            progressBar.setValue(total == 0 ? 0 : (int) (100L * completed / total));
+            progressBar.setString(completed + " / " + total);
+        }
+
+        @Override
+        protected void done() {
+            if (this == worker) {
+                finish(this);
+            }
+        }
+    }
+
+    /**
+     * Accepts files and folders dragged from the desktop while no batch is running
+     */
+    private final class FileDropHandler extends TransferHandler {
+
+        @Override
+        public boolean canImport(TransferSupport support) {
+            return worker == null && support.isDataFlavorSupported(DataFlavor.javaFileListFlavor);
+        }
+
+        @Override
+        public boolean importData(TransferSupport support) {
+            if (!canImport(support)) {
+                return false;
+            }
+            try {
+                @SuppressWarnings("unchecked")
+                List<File> dropped = (List<File>) support.getTransferable()
+                        .getTransferData(DataFlavor.javaFileListFlavor);
+                scan(dropped.stream().map(File::toPath).toList());
+                return true;
+            } catch (UnsupportedFlavorException | IOException e) {
+                statusLabel.setText("Unable to read dropped files: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Column view over the batch results; rows are only ever appended or cleared
+     */
+    private static final class BatchTableModel extends AbstractTableModel {
+
+        private static final String[] COLUMNS = {"File", "Status", "Format", "Text", "Time (ms)"};
+
+        private final List<BatchReadResult> rows = new ArrayList<>();
+
+        void addAll(List<BatchReadResult> results) {
+            int first = rows.size();
+            rows.addAll(results);
+            fireTableRowsInserted(first, rows.size() - 1);
+        }
+
+        void clear() {
+            rows.clear();
+            fireTableDataChanged();
+        }
+
+        BatchReadResult get(int row) {
+            return rows.get(row);
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            // Numeric class so the time column sorts by value, not as text
+            return column == 4 ? Double.class : String.class;
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            BatchReadResult result = rows.get(row);
+            return switch (column) {
+                case 0 -> result.file().getFileName().toString();
+                case 1 -> status(result);
+                case 2 -> result.result() == null ? "" : String.valueOf(result.result().barcodeFormat());
+                case 3 -> result.text() == null ? "" : result.text();
+                default -> result.latencyMillis();
+            };
+        }
+    }
+}
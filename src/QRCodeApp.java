@@ -3,10 +3,16 @@ import java.util.Scanner;
 
 /**
  * Main application for QR Code Generator and Reader
+ * Without arguments an interactive menu is shown; with arguments the call is handed to
+ * {@link QRCodeCli} for scripted use
  */
 public class QRCodeApp {
 
     public static void main(String[] args) {
+        if (args.length > 0) {
+            QRCodeCli.main(args);
+            return;
+        }
         Scanner scanner = new Scanner(System.in);
         
         while (true) {
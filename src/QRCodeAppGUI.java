@@ -1,19 +1,18 @@
 import com.google.zxing.NotFoundException;
-import com.google.zxing.WriterException;
 import factory.CodeGeneratorFactory;
 import factory.CodeReaderFactory;
 import model.CodeFormat;
+import model.DecodeResult;
 import service.ICodeGenerator;
 import service.ICodeReader;
+import service.ImageLoader;
 
-import javax.imageio.ImageIO;
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.TitledBorder;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.Desktop;
-import java.awt.Image;
 import java.awt.Toolkit;
 import java.awt.datatransfer.StringSelection;
 import java.awt.image.BufferedImage;
@@ -21,12 +20,20 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Graphical interface for the QR Code Generator and Reader application.
+ * Encoding, PNG writing, image loading and decoding run on SwingWorker threads;
+ * the Event Dispatch Thread only starts work and applies results.
  */
 public class QRCodeAppGUI extends JFrame {
 
+    private static final int PREVIEW_SIZE = 240;
+
     private final JTextArea inputDataArea = new JTextArea(5, 30);
     private final JComboBox<CodeFormat> formatComboBox = new JComboBox<>(CodeFormat.values());
     private final JTextField outputPathField = new JTextField("qrcode.png", 25);
@@ -34,12 +41,20 @@ public class QRCodeAppGUI extends JFrame {
     private final JLabel generateStatusLabel = new JLabel(" ");
     private final JLabel previewLabel = new JLabel("No code generated yet", SwingConstants.CENTER);
     private final JButton openOutputButton = new JButton("Open Image");
+    private final JButton cancelGenerateButton = new JButton("Cancel");
+    private final JProgressBar generateProgressBar = new JProgressBar(0, 100);
     private Path lastGeneratedPath;
 
+    // The worker whose result will be shown; a finished worker that is no longer current is ignored
+    private GenerateWorker generateWorker;
+
     private final JTextField inputFileField = new JTextField(25);
     private final JTextArea decodedTextArea = new JTextArea(6, 30);
     private final JLabel readStatusLabel = new JLabel(" ");
     private final JLabel detectedFormatLabel = new JLabel(" ");
+    private final JButton cancelReadButton = new JButton("Cancel");
+    private final JProgressBar readProgressBar = new JProgressBar();
+    private ReadWorker readWorker;
 
     public QRCodeAppGUI() {
         super("QR Code & Barcode Studio");
@@ -61,10 +76,18 @@ public class QRCodeAppGUI extends JFrame {
         openOutputButton.setEnabled(false);
         openOutputButton.addActionListener(e -> openGeneratedFile());
 
+        cancelGenerateButton.setEnabled(false);
+        cancelGenerateButton.addActionListener(e -> cancelGenerate());
+        cancelReadButton.setEnabled(false);
+        cancelReadButton.addActionListener(e -> cancelRead());
+        configureProgressBar(generateProgressBar);
+        configureProgressBar(readProgressBar);
+
         JTabbedPane tabbedPane = new JTabbedPane();
         tabbedPane.setBorder(new EmptyBorder(0, 20, 20, 20));
         tabbedPane.addTab("Generate", createGeneratePanel());
         tabbedPane.addTab("Read", createReadPanel());
+        tabbedPane.addTab("Batch", new BatchScanPanel());
 
         JPanel root = new JPanel(new BorderLayout());
         root.add(createHeader(), BorderLayout.NORTH);
@@ -162,6 +185,7 @@ public class QRCodeAppGUI extends JFrame {
         JButton clearButton = new JButton("Clear");
         clearButton.addActionListener(e -> clearGenerateForm());
         buttonPanel.add(generateButton);
+        buttonPanel.add(cancelGenerateButton);
         buttonPanel.add(clearButton);
         buttonPanel.add(openOutputButton);
 
@@ -170,6 +194,9 @@ public class QRCodeAppGUI extends JFrame {
         gbc.gridwidth = 3;
         formPanel.add(buttonPanel, gbc);
 
+        gbc.gridy = ++row;
+        formPanel.add(generateProgressBar, gbc);
+
         generateStatusLabel.setForeground(new Color(0, 102, 0));
         gbc.gridy = ++row;
         formPanel.add(generateStatusLabel, gbc);
@@ -236,6 +263,7 @@ public class QRCodeAppGUI extends JFrame {
         JButton copyButton = new JButton("Copy Text");
         copyButton.addActionListener(e -> copyDecodedText());
         buttonPanel.add(readButton);
+        buttonPanel.add(cancelReadButton);
         buttonPanel.add(copyButton);
 
         gbc.gridx = 0;
@@ -261,10 +289,13 @@ public class QRCodeAppGUI extends JFrame {
         gbc.weighty = 1.0;
         formPanel.add(resultScroll, gbc);
 
-        readStatusLabel.setForeground(new Color(0, 102, 0));
         gbc.gridy = ++row;
         gbc.weighty = 0;
         gbc.fill = GridBagConstraints.HORIZONTAL;
+        formPanel.add(readProgressBar, gbc);
+
+        readStatusLabel.setForeground(new Color(0, 102, 0));
+        gbc.gridy = ++row;
         formPanel.add(readStatusLabel, gbc);
 
         detectedFormatLabel.setForeground(new Color(0, 102, 153));
@@ -277,12 +308,7 @@ public class QRCodeAppGUI extends JFrame {
     }
 
     private void handleGenerate() {
-        generateStatusLabel.setText(" ");
-        generateStatusLabel.setForeground(new Color(0, 102, 0));
-        openOutputButton.setEnabled(false);
-        lastGeneratedPath = null;
         String data = inputDataArea.getText().trim();
-
         if (data.isEmpty()) {
             showGenerateError("Data cannot be empty.");
             return;
@@ -300,39 +326,75 @@ public class QRCodeAppGUI extends JFrame {
         }
 
         int size = (int) sizeSpinner.getValue();
+        GenerateRequest request = new GenerateRequest(data, selectedFormat, filename, size);
 
-        try {
-            ICodeGenerator generator = CodeGeneratorFactory.createGenerator(selectedFormat);
-            
-            if (!generator.validateData(data)) {
-                showGenerateError("Invalid data for " + selectedFormat.getDisplayName() + 
-                                " format. Please check the format requirements.");
+        // Repeated clicks for the same code while it is being generated are dropped;
+        // a click with different input replaces the running job
+        if (generateWorker != null) {
+            if (generateWorker.request.equals(request)) {
                 return;
             }
-            
-            Path savedPath = generator.generateCode(data, filename, size, size);
+            generateWorker.cancel(true);
+        }
+
+        generateStatusLabel.setText(" ");
+        generateStatusLabel.setForeground(new Color(0, 102, 0));
+        openOutputButton.setEnabled(false);
+        lastGeneratedPath = null;
+        cancelGenerateButton.setEnabled(true);
+        showProgress(generateProgressBar, "Starting…", 0);
+
+        generateWorker = new GenerateWorker(request);
+        generateWorker.execute();
+    }
+
+    private void cancelGenerate() {
+        if (generateWorker != null) {
+            generateWorker.cancel(true);
+        }
+    }
+
+    private void finishGenerate(GenerateWorker worker) {
+        generateWorker = null;
+        cancelGenerateButton.setEnabled(false);
+        hideProgress(generateProgressBar);
+
+        CodeFormat format = worker.request.format();
+        if (worker.isCancelled()) {
+            generateStatusLabel.setForeground(new Color(120, 120, 120));
+            generateStatusLabel.setText("Generation cancelled.");
+            return;
+        }
+        try {
+            GeneratedCode generated = worker.get();
             generateStatusLabel.setForeground(new Color(0, 102, 0));
-            generateStatusLabel.setText("Saved to: " + savedPath);
-            lastGeneratedPath = savedPath;
-            updatePreview(savedPath);
+            generateStatusLabel.setText("Saved to: " + generated.path());
+            lastGeneratedPath = generated.path();
+            if (generated.preview() != null) {
+                previewLabel.setIcon(generated.preview());
+                previewLabel.setText(null);
+            } else {
+                previewLabel.setIcon(null);
+                previewLabel.setText("Preview unavailable");
+            }
             openOutputButton.setEnabled(canOpenGeneratedFile());
             JOptionPane.showMessageDialog(this,
-                    selectedFormat.getDisplayName() + " generated successfully!\nSaved to: " + savedPath,
+                    format.getDisplayName() + " generated successfully!\nSaved to: " + generated.path(),
                     "Success",
                     JOptionPane.INFORMATION_MESSAGE);
-        } catch (WriterException | IOException e) {
-            showGenerateError("Failed to generate " + selectedFormat.getDisplayName() + ": " + e.getMessage());
-        } catch (IllegalArgumentException e) {
-            showGenerateError(e.getMessage());
+        } catch (ExecutionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof IllegalArgumentException) {
+                showGenerateError(cause.getMessage());
+            } else {
+                showGenerateError("Failed to generate " + format.getDisplayName() + ": " + cause.getMessage());
+            }
+        } catch (InterruptedException | CancellationException e) {
+            // get() does not block once done() runs; nothing to report
         }
     }
 
     private void handleRead() {
-        readStatusLabel.setText(" ");
-        readStatusLabel.setForeground(new Color(0, 102, 0));
-        detectedFormatLabel.setText(" ");
-        decodedTextArea.setText("");
-
         String filePath = inputFileField.getText().trim();
         if (filePath.isEmpty()) {
             showReadError("Please select an image file.");
@@ -345,24 +407,62 @@ public class QRCodeAppGUI extends JFrame {
             return;
         }
 
+        // Same coalescing as generation: one decode per file at a time
+        if (readWorker != null) {
+            if (readWorker.filePath.equals(filePath)) {
+                return;
+            }
+            readWorker.cancel(true);
+        }
+
+        readStatusLabel.setText(" ");
+        readStatusLabel.setForeground(new Color(0, 102, 0));
+        detectedFormatLabel.setText(" ");
+        decodedTextArea.setText("");
+        cancelReadButton.setEnabled(true);
+        showProgress(readProgressBar, "Decoding " + file.getName() + "…", -1);
+
+        readWorker = new ReadWorker(filePath);
+        readWorker.execute();
+    }
+
+    private void cancelRead() {
+        if (readWorker != null) {
+            readWorker.cancel(true);
+        }
+    }
+
+    private void finishRead(ReadWorker worker) {
+        readWorker = null;
+        cancelReadButton.setEnabled(false);
+        hideProgress(readProgressBar);
+
+        if (worker.isCancelled()) {
+            readStatusLabel.setForeground(new Color(120, 120, 120));
+            readStatusLabel.setText("Decoding cancelled.");
+            return;
+        }
         try {
-            ICodeReader reader = CodeReaderFactory.createMultiFormatReader();
-            String decoded = reader.readCode(filePath);
-            
-            // Try to detect the format by reading the result metadata
-            String formatInfo = detectFormatFromFile(filePath);
-            
+            DecodeResult result = worker.get();
+            String decoded = result.text();
+
             decodedTextArea.setText(decoded);
             readStatusLabel.setForeground(new Color(0, 102, 0));
             readStatusLabel.setText("✓ Code decoded successfully (" + decoded.length() + " characters)");
-            
-            if (formatInfo != null && !formatInfo.isEmpty()) {
-                detectedFormatLabel.setText("Detected format: " + formatInfo);
+
+            // The format comes from the same decode pass, no second read needed
+            if (result.barcodeFormat() != null) {
+                detectedFormatLabel.setText("Detected format: " + result.barcodeFormat());
             }
-        } catch (IOException e) {
-            showReadError("Unable to read file: " + e.getMessage());
-        } catch (NotFoundException e) {
-            showReadError("No QR code or barcode found in the selected image.");
+        } catch (ExecutionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof NotFoundException) {
+                showReadError("No QR code or barcode found in the selected image.");
+            } else {
+                showReadError("Unable to read file: " + cause.getMessage());
+            }
+        } catch (InterruptedException | CancellationException e) {
+            // get() does not block once done() runs; nothing to report
         }
     }
 
@@ -463,35 +563,63 @@ public class QRCodeAppGUI extends JFrame {
         return header;
     }
 
-    private void updatePreview(Path imagePath) {
+    /**
+     * Load and scale the preview image; runs on a worker thread
+     * Scaling is done here rather than with getScaledInstance, which defers it to the first paint
+     *
+     * @return The preview icon, or null if the file is not a readable image
+     */
+    private static ImageIcon loadPreview(Path imagePath) throws IOException {
         if (imagePath == null || !Files.exists(imagePath)) {
-            clearPreview();
-            return;
+            return null;
+        }
+        // Subsampled while decoding; the bilinear pass below only smooths the last step
+        BufferedImage image = ImageLoader.loadImage(imagePath, PREVIEW_SIZE);
+        if (image == null) {
+            return null;
         }
+        int size = Math.max(image.getWidth(), image.getHeight());
+        double scale = size > PREVIEW_SIZE ? (double) PREVIEW_SIZE / size : 1.0;
+        int w = Math.max((int) Math.round(image.getWidth() * scale), 60);
+        int h = Math.max((int) Math.round(image.getHeight() * scale), 60);
+
+        BufferedImage scaled = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
         try {
-            BufferedImage image = ImageIO.read(imagePath.toFile());
-            if (image == null) {
-                clearPreview();
-                return;
-            }
-            int target = 240;
-            int size = Math.max(image.getWidth(), image.getHeight());
-            double scale = size > target ? (double) target / size : 1.0;
-            int w = (int) Math.round(image.getWidth() * scale);
-            int h = (int) Math.round(image.getHeight() * scale);
-            Image scaled = image.getScaledInstance(Math.max(w, 60), Math.max(h, 60), Image.SCALE_SMOOTH);
-            previewLabel.setIcon(new ImageIcon(scaled));
-            previewLabel.setText(null);
-        } catch (IOException e) {
-            previewLabel.setIcon(null);
-            previewLabel.setText("Preview unavailable");
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(image, 0, 0, w, h, null);
+        } finally {
+            g.dispose();
         }
+        return new ImageIcon(scaled);
     }
 
     private void clearPreview() {
         previewLabel.setIcon(null);
         previewLabel.setText("No code generated yet");
     }
+
+    // Bars stay in the layout while idle so the fixed-size window does not jump
+    private void configureProgressBar(JProgressBar bar) {
+        bar.setStringPainted(true);
+        hideProgress(bar);
+    }
+
+    private void showProgress(JProgressBar bar, String step, int percent) {
+        bar.setIndeterminate(percent < 0);
+        bar.setValue(Math.max(percent, 0));
+        bar.setString(step);
+    }
+
+    private void hideProgress(JProgressBar bar) {
+        bar.setIndeterminate(false);
+        bar.setValue(0);
+        bar.setString(" ");
+    }
+
+    private static Throwable unwrap(ExecutionException e) {
+        return e.getCause() != null ? e.getCause() : e;
+    }
     
     /**
      * Update the default filename based on selected format
@@ -507,31 +635,6 @@ public class QRCodeAppGUI extends JFrame {
         }
     }
     
-    /**
-     * Detect the barcode format from the image file
-     */
-    private String detectFormatFromFile(String filePath) {
-        try {
-            File file = new File(filePath);
-            BufferedImage bufferedImage = ImageIO.read(file);
-            
-            if (bufferedImage == null) {
-                return null;
-            }
-
-            com.google.zxing.BinaryBitmap binaryBitmap = new com.google.zxing.BinaryBitmap(
-                    new com.google.zxing.common.HybridBinarizer(
-                            new com.google.zxing.client.j2se.BufferedImageLuminanceSource(bufferedImage)));
-
-            com.google.zxing.MultiFormatReader reader = new com.google.zxing.MultiFormatReader();
-            com.google.zxing.Result result = reader.decode(binaryBitmap);
-            
-            return result.getBarcodeFormat().toString();
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
     private boolean canOpenGeneratedFile() {
         return lastGeneratedPath != null
                 && Files.exists(lastGeneratedPath)
@@ -569,4 +672,107 @@ public class QRCodeAppGUI extends JFrame {
             app.setVisible(true);
         });
     }
+
+    private record GenerateRequest(String data, CodeFormat format, String filename, int size) {
+    }
+
+    private record GeneratedCode(Path path, ImageIcon preview) {
+    }
+
+    private record Progress(String step, int percent) {
+    }
+
+    /**
+     * Validates, encodes and writes one code, then loads its preview
+     */
+    private final class GenerateWorker extends SwingWorker<GeneratedCode, Progress> {
+
+        private final GenerateRequest request;
+
+        GenerateWorker(GenerateRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        protected GeneratedCode doInBackground() throws Exception {
+            CodeFormat format = request.format();
+            publish(new Progress("Validating data…", 10));
+            ICodeGenerator generator = CodeGeneratorFactory.createGenerator(format);
+            if (!generator.validateData(request.data())) {
+                throw new IllegalArgumentException("Invalid data for " + format.getDisplayName()
+                        + " format. Please check the format requirements.");
+            }
+            if (isCancelled()) {
+                return null;
+            }
+
+            publish(new Progress("Encoding " + format.getDisplayName() + "…", 30));
+            Path savedPath = Path.of(request.filename()).toAbsolutePath();
+            // Written beside the target and moved over it, so a cancelled job or a replacing
+            // job for the same file never leaves a half-written image behind
+            Path partial = Files.createTempFile(savedPath.getParent(), "." + savedPath.getFileName(), ".part");
+            try {
+                generator.generateCode(request.data(), partial.toString(), request.size(), request.size());
+                if (isCancelled()) {
+                    return null;
+                }
+                Files.move(partial, savedPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(partial);
+            }
+
+            publish(new Progress("Loading preview…", 80));
+            ImageIcon preview;
+            try {
+                preview = loadPreview(savedPath);
+            } catch (IOException e) {
+                // The code was saved; only the preview is missing
+                preview = null;
+            }
+            return new GeneratedCode(savedPath, preview);
+        }
+
+        @Override
+        protected void process(List<Progress> steps) {
+            // Intermediate steps may be merged; only the latest matters
+            if (this == generateWorker && !isCancelled()) {
+                Progress latest = steps.get(steps.size() - 1);
+                showProgress(generateProgressBar, latest.step(), latest.percent());
+            }
+        }
+
+        @Override
+        protected void done() {
+            if (this == generateWorker) {
+                finishGenerate(this);
+            }
+        }
+    }
+
+    /**
+     * Decodes one image file with the shared multi-format reader
+     * ZXing does not poll for interruption, so a cancelled decode runs to the end
+     * in the background and its result is discarded
+     */
+    private final class ReadWorker extends SwingWorker<DecodeResult, Void> {
+
+        private final String filePath;
+
+        ReadWorker(String filePath) {
+            this.filePath = filePath;
+        }
+
+        @Override
+        protected DecodeResult doInBackground() throws IOException, NotFoundException {
+            ICodeReader reader = CodeReaderFactory.createMultiFormatReader();
+            return reader.readResult(filePath);
+        }
+
+        @Override
+        protected void done() {
+            if (this == readWorker) {
+                finishRead(this);
+            }
+        }
+    }
 }
@@ -0,0 +1,397 @@
+import com.google.zxing.NotFoundException;
+import factory.CodeReaderFactory;
+import model.BatchReadResult;
+import model.BatchSummary;
+import model.CodeFormat;
+import model.GenerationJob;
+import model.GenerationResult;
+import model.ReaderConfig;
+import service.BatchCodeReader;
+import service.BulkCodeGenerator;
+import service.Json;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Non-interactive command line entry point for scripted generate and decode jobs
+ * Results are written to standard output as JSON lines, one per item, as soon as each completes;
+ * the run summary goes to standard error
+ * Only headless classes are used: no Swing, and generation writes PNGs without java.awt
+ */
+public class QRCodeCli {
+
+    static final int EXIT_OK = 0;
+    static final int EXIT_ITEM_FAILED = 1;
+    static final int EXIT_USAGE = 2;
+    static final int EXIT_ERROR = 3;
+
+    private static final String USAGE = """
+            Usage: QRCodeCli <generate|decode> [options] [inputs...]
+
+            generate  Encode data into PNG images
+              inputs       Data values, '-' for one value per line on stdin, or --csv FILE
+              --format F   Code format (default QR_CODE): %s
+              --size N     Image width and height in pixels (default 300)
+              --out DIR    Output directory (default: current directory)
+              --csv FILE   Manifest with columns data,format,size,path
+              --verify     Decode each code before it is written
+
+            decode    Decode codes from image files
+              inputs       Files, directories (recursive), glob patterns, or '-' for one path per line on stdin
+              --format F   Only look for this format (default: all formats)
+
+            Common options
+              --threads N  Worker threads (default: available processors)
+
+            Exit status: 0 all items succeeded, 1 some items failed, 2 usage error, 3 fatal error
+            """;
+
+    private final PrintStream out;
+    private final PrintStream err;
+    // Glob arguments that matched no file; expanded on the calling thread
+    private int unmatchedPatterns;
+
+    QRCodeCli(PrintStream out, PrintStream err) {
+        this.out = out;
+        this.err = err;
+    }
+
+    public static void main(String[] args) {
+        // Keeps ImageIO from initialising a display toolkit on the decode path
+        System.setProperty("java.awt.headless", "true");
+        PrintStream out = new PrintStream(new FileOutputStream(FileDescriptor.out), false, StandardCharsets.UTF_8);
+        System.exit(new QRCodeCli(out, System.err).run(args));
+    }
+
+    /**
+     * Run one command
+     *
+     * @param args The command line
+     * @return The process exit status
+     */
+    int run(String[] args) {
+        try {
+            Options options = Options.parse(args);
+            return switch (options.command) {
+                case "generate" -> generate(options);
+                case "decode" -> decode(options);
+                default -> throw new IllegalArgumentException("Unknown command: " + options.command);
+            };
+        } catch (IllegalArgumentException e) {
+            err.println("Error: " + e.getMessage());
+            err.printf(USAGE, formatNames());
+            return EXIT_USAGE;
+        } catch (IOException | UncheckedIOException e) {
+            err.println("Error: " + e.getMessage());
+            return EXIT_ERROR;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            err.println("Interrupted");
+            return EXIT_ERROR;
+        } finally {
+            out.flush();
+        }
+    }
+
+    private int generate(Options options) throws IOException, InterruptedException {
+        if (options.csv == null && options.inputs.isEmpty()) {
+            throw new IllegalArgumentException("No data to encode");
+        }
+        Files.createDirectories(options.outDir);
+
+        try (Stream<GenerationJob> jobs = generationJobs(options);
+             BulkCodeGenerator generator = new BulkCodeGenerator(options.threads, 2)) {
+            BatchSummary summary;
+            if (options.verify) {
+                summary = generator.generateAndVerify(jobs, this::printGenerated).summary();
+            } else {
+                summary = generator.generateAll(jobs, this::printGenerated);
+            }
+            err.println(summary);
+            return summary.failed() == 0 ? EXIT_OK : EXIT_ITEM_FAILED;
+        }
+    }
+
+    private Stream<GenerationJob> generationJobs(Options options) throws IOException {
+        if (options.csv != null) {
+            return BulkCodeGenerator.readCsv(options.csv, options.outDir);
+        }
+        String stem = options.format.getDefaultFileName().replaceFirst("\\.png$", "");
+        AtomicInteger sequence = new AtomicInteger();
+        return values(options.inputs)
+                .map(data -> new GenerationJob(data, options.format, options.size, options.size,
+                        options.outDir.resolve(String.format("%s-%06d.png", stem, sequence.incrementAndGet()))));
+    }
+
+    private int decode(Options options) throws IOException, InterruptedException {
+        if (options.inputs.isEmpty()) {
+            throw new IllegalArgumentException("No images to decode");
+        }
+        ReaderConfig config = options.decodeFormat == null
+                ? ReaderConfig.allFormats()
+                : ReaderConfig.forFormats(options.decodeFormat);
+
+        try (Stream<Path> files = imageFiles(options.inputs);
+             BatchCodeReader batch = new BatchCodeReader(CodeReaderFactory.createReader(config), options.threads)) {
+            BatchSummary summary = batch.readAll(files::iterator, this::printDecoded);
+            if (unmatchedPatterns > 0) {
+                // Patterns that matched nothing are failed items too, though no file was read for them
+                summary = new BatchSummary(summary.total() + unmatchedPatterns, summary.succeeded(),
+                        summary.failed() + unmatchedPatterns, summary.elapsedNanos(), summary.totalLatencyNanos());
+            }
+            err.println(summary);
+            return summary.failed() == 0 ? EXIT_OK : EXIT_ITEM_FAILED;
+        }
+    }
+
+    /**
+     * Expand the input arguments lazily; '-' reads one value per line from stdin
+     */
+    private static Stream<String> values(List<String> inputs) {
+        return inputs.stream().flatMap(input -> input.equals("-") ? stdinLines() : Stream.of(input));
+    }
+
+    private static Stream<String> stdinLines() {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        return reader.lines().map(String::strip).filter(line -> !line.isEmpty());
+    }
+
+    private Stream<Path> imageFiles(List<String> inputs) {
+        return values(inputs).flatMap(this::expand);
+    }
+
+    /**
+     * Turn one argument into files: a directory is walked for images, a glob is matched
+     * below its fixed leading directories, anything else is taken as a file
+     * Missing files are passed on so they are reported as failed items
+     */
+    private Stream<Path> expand(String input) {
+        try {
+            int glob = firstGlobChar(input);
+            if (glob >= 0) {
+                return expandGlob(input, glob);
+            }
+            Path path = Path.of(input);
+            if (Files.isDirectory(path)) {
+                return Files.walk(path).filter(Files::isRegularFile).filter(BatchCodeReader::isImageFile);
+            }
+            return Stream.of(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to list " + input + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Match a glob against the files below its directory part
+     * A pattern that matches nothing is reported as a failed item rather than silently skipped
+     */
+    private Stream<Path> expandGlob(String input, int glob) throws IOException {
+        int separator = lastSeparator(input, glob);
+        Path base = separator < 0 ? Path.of(".") : Path.of(input.substring(0, separator + 1));
+        // The rest is matched against paths relative to the base, written with '/' on every platform;
+        // on Windows a backslash is a separator, not a glob escape
+        String pattern = input.substring(separator + 1);
+        if (File.separatorChar == '\\') {
+            pattern = pattern.replace('\\', '/');
+        }
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+        // Without "**" the pattern cannot match deeper than its own number of segments
+        int depth = pattern.contains("**")
+                ? Integer.MAX_VALUE
+                : (int) pattern.chars().filter(c -> c == '/').count() + 1;
+
+        List<Path> matches = List.of();
+        if (Files.isDirectory(base)) {
+            try (Stream<Path> walk = Files.walk(base, depth)) {
+                matches = walk.filter(Files::isRegularFile)
+                        .filter(path -> matcher.matches(base.relativize(path)))
+                        .toList();
+            }
+        }
+        if (matches.isEmpty()) {
+            unmatchedPatterns++;
+            printUnmatched(input);
+        }
+        return matches.stream();
+    }
+
+    private static int lastSeparator(String input, int end) {
+        int slash = input.lastIndexOf('/', end);
+        if (File.separatorChar == '\\') {
+            slash = Math.max(slash, input.lastIndexOf('\\', end));
+        }
+        return slash;
+    }
+
+    private static int firstGlobChar(String input) {
+        for (int i = 0; i < input.length(); i++) {
+            if ("*?[{".indexOf(input.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void printDecoded(BatchReadResult result) {
+        StringBuilder line = new StringBuilder(128);
+        line.append("{\"file\":");
+        Json.appendString(line, result.file().toString());
+        line.append(",\"ok\":").append(result.isSuccess());
+        if (result.isSuccess()) {
+            line.append(",\"format\":");
+            Json.appendString(line, String.valueOf(result.result().barcodeFormat()));
+            line.append(",\"text\":");
+            Json.appendString(line, result.text());
+        } else {
+            line.append(",\"error\":");
+            Json.appendString(line, describe(result.error()));
+        }
+        line.append(",\"ms\":").append(String.format(Locale.ROOT, "%.2f", result.latencyMillis())).append('}');
+        out.println(line);
+        out.flush();
+    }
+
+    private void printUnmatched(String pattern) {
+        StringBuilder line = new StringBuilder(128);
+        line.append("{\"file\":");
+        Json.appendString(line, pattern);
+        line.append(",\"ok\":false,\"error\":\"No files match the pattern\",\"ms\":0.00}");
+        out.println(line);
+        out.flush();
+    }
+
+    private void printGenerated(GenerationResult result) {
+        StringBuilder line = new StringBuilder(128);
+        GenerationJob job = result.job();
+        if (job == null) {
+            // A manifest row that could not be parsed; the error names its line
+            line.append("{\"ok\":false");
+        } else {
+            line.append("{\"data\":");
+            Json.appendString(line, job.data());
+            line.append(",\"format\":");
+            Json.appendString(line, job.format().name());
+            line.append(",\"file\":");
+            Json.appendString(line, result.isSuccess() ? result.path().toString() : job.output().toString());
+            line.append(",\"ok\":").append(result.isSuccess());
+        }
+        if (result.isSuccess()) {
+            if (result.isVerified()) {
+                line.append(",\"verified\":true");
+            }
+        } else {
+            line.append(",\"error\":");
+            Json.appendString(line, describe(result.error()));
+        }
+        line.append(",\"ms\":").append(String.format(Locale.ROOT, "%.2f", result.latencyNanos() / 1_000_000.0))
+                .append('}');
+        out.println(line);
+        out.flush();
+    }
+
+    private static String describe(Exception error) {
+        if (error instanceof NotFoundException) {
+            return "No code found";
+        }
+        String message = error.getMessage();
+        return message == null ? error.getClass().getSimpleName() : message;
+    }
+
+    private static String formatNames() {
+        return String.join(", ", Stream.of(CodeFormat.values()).map(Enum::name).toList());
+    }
+
+    /**
+     * Parsed command line
+     */
+    private static final class Options {
+        String command;
+        CodeFormat format = CodeFormat.QR_CODE;
+        CodeFormat decodeFormat;
+        int size = 300;
+        int threads = Runtime.getRuntime().availableProcessors();
+        Path outDir = Path.of(".");
+        Path csv;
+        boolean verify;
+        final List<String> inputs = new ArrayList<>();
+
+        static Options parse(String[] args) {
+            if (args.length == 0) {
+                throw new IllegalArgumentException("No command given");
+            }
+            Options options = new Options();
+            options.command = args[0];
+            for (int i = 1; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "--format" -> {
+                        CodeFormat format = parseFormat(value(args, ++i, arg));
+                        options.format = format;
+                        options.decodeFormat = format;
+                    }
+                    case "--size" -> options.size = positive(value(args, ++i, arg), arg);
+                    case "--threads" -> options.threads = positive(value(args, ++i, arg), arg);
+                    case "--out" -> options.outDir = Path.of(value(args, ++i, arg));
+                    case "--csv" -> options.csv = Path.of(value(args, ++i, arg));
+                    case "--verify" -> options.verify = true;
+                    case "--" -> {
+                        for (i++; i < args.length; i++) {
+                            options.inputs.add(args[i]);
+                        }
+                    }
+                    default -> {
+                        if (arg.startsWith("--")) {
+                            throw new IllegalArgumentException("Unknown option: " + arg);
+                        }
+                        options.inputs.add(arg);
+                    }
+                }
+            }
+            return options;
+        }
+
+        private static String value(String[] args, int index, String option) {
+            if (index >= args.length) {
+                throw new IllegalArgumentException(option + " requires a value");
+            }
+            return args[index];
+        }
+
+        private static int positive(String value, String option) {
+            try {
+                int parsed = Integer.parseInt(value);
+                if (parsed > 0) {
+                    return parsed;
+                }
+            } catch (NumberFormatException e) {
+                // Reported below
+            }
+            throw new IllegalArgumentException(option + " must be a positive integer: " + value);
+        }
+
+        private static CodeFormat parseFormat(String value) {
+            try {
+                return CodeFormat.valueOf(value.toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown format: " + value);
+            }
+        }
+    }
+}
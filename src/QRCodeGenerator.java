@@ -32,6 +32,22 @@ public class QRCodeGenerator {
         return generator.generateCode(data, filePath, width, height);
     }
 
+    /**
+     * Generate QR Code as PNG bytes, without writing any file
+     * 
+     * @param data   The text/data to encode in QR code
+     * @param width  Width of the QR code image
+     * @param height Height of the QR code image
+     * @return The PNG image contents
+     * @throws WriterException If encoding fails
+     * @throws IOException     If PNG encoding fails
+     */
+    public static byte[] generateQRCodeBytes(String data, int width, int height)
+            throws WriterException, IOException {
+        ICodeGenerator generator = CodeGeneratorFactory.createGenerator(CodeFormat.QR_CODE);
+        return generator.generateBytes(data, width, height);
+    }
+
     /**
      * Main method for testing
      */
@@ -1,8 +1,14 @@
 import com.google.zxing.NotFoundException;
 import factory.CodeReaderFactory;
+import model.BatchReadResult;
+import model.BatchSummary;
+import model.DecodeResult;
+import service.BatchCodeReader;
 import service.ICodeReader;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.function.Consumer;
 
 /**
  * QR Code Reader using ZXing library
@@ -21,10 +27,41 @@ public class QRCodeReader {
      * @throws NotFoundException If no code is found
      */
     public static String readQRCode(String filePath) throws IOException, NotFoundException {
+        return readQRCodeResult(filePath).text();
+    }
+
+    /**
+     * Read and decode a code from an image file, including its format and metadata
+     * The image is decoded in a single pass
+     * 
+     * @param filePath Path to the QR code/barcode image file
+     * @return The decode result
+     * @throws IOException       If file reading fails
+     * @throws NotFoundException If no code is found
+     */
+    public static DecodeResult readQRCodeResult(String filePath) throws IOException, NotFoundException {
         // Use the new OOP architecture via factory pattern
         // Using multi-format reader to support both QR codes and barcodes
         ICodeReader reader = CodeReaderFactory.createMultiFormatReader();
-        return reader.readCode(filePath);
+        return reader.readResult(filePath);
+    }
+
+    /**
+     * Read every image in a directory in parallel
+     * Uses one worker per available processor
+     * 
+     * @param directory Directory containing the code images
+     * @param recursive Whether to descend into sub-directories
+     * @param listener  Receives each result as soon as it completes
+     * @return Summary of the batch run
+     * @throws IOException          If the directory cannot be listed
+     * @throws InterruptedException If interrupted while waiting for results
+     */
+    public static BatchSummary readQRCodes(Path directory, boolean recursive, Consumer<BatchReadResult> listener)
+            throws IOException, InterruptedException {
+        try (BatchCodeReader batchReader = new BatchCodeReader(CodeReaderFactory.createMultiFormatReader())) {
+            return batchReader.readDirectory(directory, recursive, listener);
+        }
     }
 
     /**
@@ -0,0 +1,59 @@
+import service.CodeHttpService;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+/**
+ * Runs the decode/encode HTTP service until the process is stopped
+ * Usage: QRCodeServer [--port N] [--threads N] [--queue N] [--max-body BYTES] [--max-pixels N]
+ */
+public class QRCodeServer {
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        int port = 8080;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int queue = -1;
+        int maxBody = CodeHttpService.DEFAULT_MAX_BODY_BYTES;
+        int maxPixels = CodeHttpService.DEFAULT_MAX_PIXELS;
+
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (i + 1 >= args.length) {
+                usage("Missing value for " + option);
+            }
+            int value;
+            try {
+                value = Integer.parseInt(args[++i]);
+            } catch (NumberFormatException e) {
+                usage(option + " must be an integer");
+                return;
+            }
+            switch (option) {
+                case "--port" -> port = value;
+                case "--threads" -> threads = value;
+                case "--queue" -> queue = value;
+                case "--max-body" -> maxBody = value;
+                case "--max-pixels" -> maxPixels = value;
+                default -> usage("Unknown option: " + option);
+            }
+        }
+
+        try {
+            CodeHttpService service = new CodeHttpService(new InetSocketAddress(port), threads,
+                    queue < 0 ? threads * 4 : queue, maxBody, maxPixels);
+            Runtime.getRuntime().addShutdownHook(new Thread(service::close));
+            service.start();
+            System.out.println("Listening on http://localhost:" + service.getPort()
+                    + " (POST /decode, GET /encode, GET /health)");
+        } catch (IllegalArgumentException e) {
+            usage(e.getMessage());
+        }
+    }
+
+    private static void usage(String error) {
+        System.err.println("Error: " + error);
+        System.err.println("Usage: QRCodeServer [--port N] [--threads N] [--queue N] [--max-body BYTES] [--max-pixels N]");
+        System.exit(2);
+    }
+}
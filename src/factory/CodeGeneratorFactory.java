@@ -1,17 +1,31 @@
 package factory;
 
+import com.google.zxing.EncodeHintType;
 import model.CodeFormat;
 import service.ICodeGenerator;
 import service.impl.*;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 /**
  * Factory class for creating code generators
  * Follows the Factory Method pattern and Dependency Inversion Principle (DIP)
+ * Generators are thread-safe, so one cached instance per format is shared by all callers
  */
 public class CodeGeneratorFactory {
     
+    private static final Map<CodeFormat, ICodeGenerator> GENERATORS = new EnumMap<>(CodeFormat.class);
+    
+    static {
+        for (CodeFormat format : CodeFormat.values()) {
+            GENERATORS.put(format, newGenerator(format));
+        }
+    }
+    
     /**
-     * Create a code generator based on the specified format
+     * Get the code generator for the specified format
+     * The same shared instance is returned on every call
      * 
      * @param format The code format
      * @return ICodeGenerator instance
@@ -22,14 +36,39 @@ public class CodeGeneratorFactory {
             throw new IllegalArgumentException("Code format cannot be null");
         }
         
+        return GENERATORS.get(format);
+    }
+    
+    /**
+     * Create a new code generator that applies the given encode hints
+     * Configured generators are not cached; keep and reuse the returned instance
+     * 
+     * @param format The code format
+     * @param hints  ZXing encode hints such as MARGIN or ERROR_CORRECTION
+     * @return ICodeGenerator instance
+     * @throws IllegalArgumentException if format is not supported
+     */
+    public static ICodeGenerator createGenerator(CodeFormat format, Map<EncodeHintType, ?> hints) {
+        if (format == null) {
+            throw new IllegalArgumentException("Code format cannot be null");
+        }
+        
+        return newGenerator(format, hints);
+    }
+    
+    private static ICodeGenerator newGenerator(CodeFormat format) {
+        return newGenerator(format, Map.of());
+    }
+    
+    private static ICodeGenerator newGenerator(CodeFormat format, Map<EncodeHintType, ?> hints) {
         return switch (format) {
-            case QR_CODE -> new QRCodeGeneratorImpl();
-            case CODE_128 -> new Code128GeneratorImpl();
-            case CODE_39 -> new Code39GeneratorImpl();
-            case EAN_13 -> new EAN13GeneratorImpl();
-            case EAN_8 -> new EAN8GeneratorImpl();
-            case UPC_A -> new UPCAGeneratorImpl();
-            case UPC_E -> new UPCEGeneratorImpl();
+            case QR_CODE -> new QRCodeGeneratorImpl(hints);
+            case CODE_128 -> new Code128GeneratorImpl(hints);
+            case CODE_39 -> new Code39GeneratorImpl(hints);
+            case EAN_13 -> new EAN13GeneratorImpl(hints);
+            case EAN_8 -> new EAN8GeneratorImpl(hints);
+            case UPC_A -> new UPCAGeneratorImpl(hints);
+            case UPC_E -> new UPCEGeneratorImpl(hints);
         };
     }
     
@@ -1,39 +1,74 @@
 package factory;
 
 import model.CodeFormat;
+import model.ReaderConfig;
+import service.AbstractCodeReader;
 import service.ICodeReader;
+import service.TiledCodeReader;
 import service.impl.MultiFormatReaderImpl;
 import service.impl.QRCodeReaderImpl;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Factory class for creating code readers
  * Follows the Factory Method pattern and Dependency Inversion Principle (DIP)
+ * Readers are thread-safe, so one instance per configuration is built and shared by all callers
  */
 public class CodeReaderFactory {
-    
+
+    private static final Map<ReaderConfig, AbstractCodeReader> READERS = new ConcurrentHashMap<>();
+
     /**
-     * Create a code reader based on the specified format
-     * If format is null, returns a multi-format reader
-     * 
+     * Get a code reader for the specified format
+     * The reader looks only for that format; if format is null, returns a multi-format reader
+     *
      * @param format The code format, or null for multi-format
-     * @return ICodeReader instance
+     * @return Shared ICodeReader instance
      */
     public static ICodeReader createReader(CodeFormat format) {
-        if (format == null || format != CodeFormat.QR_CODE) {
-            // Use multi-format reader for barcodes and when format is unspecified
-            return new MultiFormatReaderImpl();
+        return readerFor(format == null ? ReaderConfig.allFormats() : ReaderConfig.forFormats(format));
+    }
+
+    /**
+     * Get a code reader built for a specific configuration
+     * Equal configurations share one reader
+     *
+     * @param config The formats and decode hints to use
+     * @return Shared ICodeReader instance
+     */
+    public static ICodeReader createReader(ReaderConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("Reader configuration cannot be null");
         }
-        
-        // Use specific QR code reader for QR codes
-        return new QRCodeReaderImpl();
+        return readerFor(config);
     }
-    
+
     /**
-     * Create a multi-format reader that can read any supported format
-     * 
-     * @return ICodeReader instance
+     * Get a multi-format reader that can read any supported format
+     *
+     * @return Shared ICodeReader instance
      */
     public static ICodeReader createMultiFormatReader() {
-        return new MultiFormatReaderImpl();
+        return readerFor(ReaderConfig.allFormats());
+    }
+
+    /**
+     * Get a reader that decodes very large images region by region with bounded memory
+     *
+     * @param format The code format, or null for multi-format
+     * @return New TiledCodeReader over the shared reader for the format
+     */
+    public static ICodeReader createTiledReader(CodeFormat format) {
+        return new TiledCodeReader(
+                readerFor(format == null ? ReaderConfig.allFormats() : ReaderConfig.forFormats(format)));
+    }
+
+    private static AbstractCodeReader readerFor(ReaderConfig config) {
+        // The dedicated QR reader skips the multi-format dispatch entirely
+        return READERS.computeIfAbsent(config, c -> c.singleFormat() == CodeFormat.QR_CODE
+                ? new QRCodeReaderImpl(c)
+                : new MultiFormatReaderImpl(c));
     }
 }
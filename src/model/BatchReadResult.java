@@ -0,0 +1,40 @@
+package model;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome of decoding a single file as part of a batch run
+ * Either {@code result} or {@code error} is set, never both
+ *
+ * @param file         The image file that was decoded
+ * @param result       The decode result, or null if decoding failed
+ * @param error        The failure cause, or null on success
+ * @param latencyNanos Time spent decoding this file, in nanoseconds
+ */
+public record BatchReadResult(Path file, DecodeResult result, Exception error, long latencyNanos) {
+
+    public static BatchReadResult success(Path file, DecodeResult result, long latencyNanos) {
+        return new BatchReadResult(file, result, null, latencyNanos);
+    }
+
+    public static BatchReadResult failure(Path file, Exception error, long latencyNanos) {
+        return new BatchReadResult(file, null, error, latencyNanos);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * Get the decoded text
+     *
+     * @return The text, or null if decoding failed
+     */
+    public String text() {
+        return result == null ? null : result.text();
+    }
+
+    public double latencyMillis() {
+        return latencyNanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,28 @@
+package model;
+
+/**
+ * Aggregate statistics for a completed batch run
+ *
+ * @param total             Number of files processed
+ * @param succeeded         Number of files decoded successfully
+ * @param failed            Number of files that failed to decode
+ * @param elapsedNanos      Wall-clock time of the whole batch
+ * @param totalLatencyNanos Sum of the per-file latencies
+ */
+public record BatchSummary(int total, int succeeded, int failed, long elapsedNanos, long totalLatencyNanos) {
+
+    public double averageLatencyMillis() {
+        return total == 0 ? 0.0 : totalLatencyNanos / 1_000_000.0 / total;
+    }
+
+    public double throughputPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : total * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d files (%d ok, %d failed) in %.1f ms, avg %.2f ms/file, %.1f files/s",
+                total, succeeded, failed, elapsedNanos / 1_000_000.0,
+                averageLatencyMillis(), throughputPerSecond());
+    }
+}
@@ -0,0 +1,24 @@
+package model;
+
+/**
+ * Point-in-time counters for a bounded cache
+ *
+ * @param hits         Lookups served from the cache
+ * @param misses       Lookups that had to do the real work
+ * @param evictions    Entries removed to stay within the size or count bound
+ * @param entries      Entries currently held
+ * @param weightBytes  Estimated memory held by the current entries
+ */
+public record CacheStats(long hits, long misses, long evictions, int entries, long weightBytes) {
+
+    public double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d misses=%d (%.1f%% hit rate) evictions=%d entries=%d size=%d bytes",
+                hits, misses, hitRate() * 100, evictions, entries, weightBytes);
+    }
+}
@@ -1,5 +1,7 @@
 package model;
 
+import com.google.zxing.BarcodeFormat;
+
 /**
  * Enum representing supported code formats
  * Follows the Type-Safe Enum pattern
@@ -29,6 +31,43 @@ public enum CodeFormat {
         return defaultFileName;
     }
 
+    /**
+     * Check whether codes of this format are found in the whole thresholded image rather than
+     * read row by row, as 1D barcodes are
+     * 
+     * @return true for 2D formats
+     */
+    public boolean isMatrix() {
+        return this == QR_CODE;
+    }
+
+    /**
+     * Get the ZXing barcode format with the same meaning
+     * 
+     * @return The matching BarcodeFormat
+     */
+    public BarcodeFormat getBarcodeFormat() {
+        return BarcodeFormat.valueOf(name());
+    }
+
+    /**
+     * Look up the application format for a ZXing barcode format
+     * 
+     * @param barcodeFormat The ZXing format
+     * @return The matching CodeFormat, or null if unsupported
+     */
+    public static CodeFormat fromBarcodeFormat(BarcodeFormat barcodeFormat) {
+        if (barcodeFormat == null) {
+            return null;
+        }
+        for (CodeFormat format : values()) {
+            if (format.name().equals(barcodeFormat.name())) {
+                return format;
+            }
+        }
+        return null;
+    }
+
     @Override
     public String toString() {
         return displayName;
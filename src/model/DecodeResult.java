@@ -0,0 +1,73 @@
+package model;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.Result;
+import com.google.zxing.ResultMetadataType;
+import com.google.zxing.ResultPoint;
+
+import java.util.Map;
+
+/**
+ * Everything known about a decoded code, captured from a single decode pass
+ *
+ * @param text                 The decoded text
+ * @param barcodeFormat        The ZXing format that was detected
+ * @param resultPoints         Finder pattern / guard positions in image coordinates
+ * @param rawBytes             Raw codewords, or null if the format does not expose them
+ * @param errorCorrectionLevel Error correction level, or null if not applicable
+ * @param elapsedNanos         Time taken to load and decode the image
+ * @param stage                The decode pass that found the code
+ */
+public record DecodeResult(String text,
+                           BarcodeFormat barcodeFormat,
+                           ResultPoint[] resultPoints,
+                           byte[] rawBytes,
+                           String errorCorrectionLevel,
+                           long elapsedNanos,
+                           DecodeStage stage) {
+
+    /**
+     * Build a DecodeResult from a ZXing result found at full resolution
+     *
+     * @param result       The ZXing result
+     * @param elapsedNanos Time taken to produce the result
+     * @return The DecodeResult
+     */
+    public static DecodeResult from(Result result, long elapsedNanos) {
+        return from(result, elapsedNanos, DecodeStage.FULL_RESOLUTION);
+    }
+
+    /**
+     * Build a DecodeResult from a ZXing result
+     *
+     * @param result       The ZXing result
+     * @param elapsedNanos Time taken to produce the result
+     * @param stage        The decode pass that found the code
+     * @return The DecodeResult
+     */
+    public static DecodeResult from(Result result, long elapsedNanos, DecodeStage stage) {
+        Map<ResultMetadataType, Object> metadata = result.getResultMetadata();
+        Object ecLevel = metadata == null ? null : metadata.get(ResultMetadataType.ERROR_CORRECTION_LEVEL);
+        return new DecodeResult(
+                result.getText(),
+                result.getBarcodeFormat(),
+                result.getResultPoints() == null ? new ResultPoint[0] : result.getResultPoints(),
+                result.getRawBytes(),
+                ecLevel == null ? null : ecLevel.toString(),
+                elapsedNanos,
+                stage);
+    }
+
+    /**
+     * Get the matching application format
+     *
+     * @return The CodeFormat, or null if the detected format is not one we generate
+     */
+    public CodeFormat codeFormat() {
+        return CodeFormat.fromBarcodeFormat(barcodeFormat);
+    }
+
+    public double elapsedMillis() {
+        return elapsedNanos / 1_000_000.0;
+    }
+}
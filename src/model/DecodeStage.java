@@ -0,0 +1,29 @@
+package model;
+
+/**
+ * Enum representing the passes of the adaptive decode strategy, cheapest first
+ * Follows the Type-Safe Enum pattern
+ */
+public enum DecodeStage {
+    PURE_BARCODE("Pure barcode"),
+    DOWNSCALED_1024("Downscaled to 1024 px"),
+    DOWNSCALED_2048("Downscaled to 2048 px"),
+    FULL_RESOLUTION("Full resolution"),
+    TRY_HARDER("Full resolution, try harder"),
+    GLOBAL_HISTOGRAM("Global histogram binarizer");
+
+    private final String displayName;
+
+    DecodeStage(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,33 @@
+package model;
+
+import java.util.Map;
+
+/**
+ * Point-in-time counters for the adaptive decode strategy
+ *
+ * @param attempts  Passes run, per stage
+ * @param successes Decodes that succeeded, per stage at which they succeeded
+ * @param failures  Decodes that failed every stage
+ */
+public record DecodeStageStats(Map<DecodeStage, Long> attempts, Map<DecodeStage, Long> successes, long failures) {
+
+    public DecodeStageStats {
+        attempts = Map.copyOf(attempts);
+        successes = Map.copyOf(successes);
+    }
+
+    public long totalDecodes() {
+        return successes.values().stream().mapToLong(Long::longValue).sum() + failures;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (DecodeStage stage : DecodeStage.values()) {
+            text.append(stage.name()).append(": ")
+                    .append(successes.getOrDefault(stage, 0L)).append('/')
+                    .append(attempts.getOrDefault(stage, 0L)).append(" succeeded, ");
+        }
+        return text.append("failed=").append(failures).toString();
+    }
+}
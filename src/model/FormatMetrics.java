@@ -0,0 +1,21 @@
+package model;
+
+/**
+ * Point-in-time encode/decode counters for one code format
+ *
+ * @param decodeSuccesses Decodes that found a code of this format
+ * @param decodeFailures  Decodes by a reader for this format that found nothing
+ * @param encodeSuccesses Matrices encoded in this format
+ * @param encodeFailures  Encodes that were rejected or failed
+ * @param decodeLatency   Decode time distribution, successes and failures together
+ * @param encodeLatency   Encode time distribution
+ */
+public record FormatMetrics(long decodeSuccesses, long decodeFailures, long encodeSuccesses, long encodeFailures,
+                            LatencySnapshot decodeLatency, LatencySnapshot encodeLatency) {
+
+    @Override
+    public String toString() {
+        return String.format("decode %d ok / %d failed, encode %d ok / %d failed",
+                decodeSuccesses, decodeFailures, encodeSuccesses, encodeFailures);
+    }
+}
@@ -0,0 +1,52 @@
+package model;
+
+import com.google.zxing.LuminanceSource;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+
+/**
+ * One grayscale frame of a live stream, ready to be decoded in place
+ *
+ * @param sequence       Position of the frame in its source, starting at 0
+ * @param capturedNanos  {@link System#nanoTime()} when the frame was captured
+ * @param luminance      8-bit grayscale samples, row after row with no padding
+ * @param width          Width in pixels
+ * @param height         Height in pixels
+ */
+public record Frame(long sequence, long capturedNanos, byte[] luminance, int width, int height) {
+
+    /**
+     * Capture a frame from a decoded image, converting it to grayscale if needed
+     *
+     * @param sequence Position of the frame in its source
+     * @param image    The decoded image
+     * @return The frame, timestamped now
+     */
+    public static Frame of(long sequence, BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        BufferedImage gray = image;
+        if (image.getType() != BufferedImage.TYPE_BYTE_GRAY
+                || image.getRaster().getDataBuffer().getSize() != width * height) {
+            gray = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+            Graphics2D graphics = gray.createGraphics();
+            graphics.drawImage(image, 0, 0, null);
+            graphics.dispose();
+        }
+        byte[] luminance = ((DataBufferByte) gray.getRaster().getDataBuffer()).getData();
+        return new Frame(sequence, System.nanoTime(), luminance, width, height);
+    }
+
+    /**
+     * Capture a frame from loaded luminance; a source over a packed plane is used without copying
+     *
+     * @param sequence Position of the frame in its source
+     * @param source   The luminance
+     * @return The frame, timestamped now
+     */
+    public static Frame of(long sequence, LuminanceSource source) {
+        return new Frame(sequence, System.nanoTime(), source.getMatrix(), source.getWidth(), source.getHeight());
+    }
+}
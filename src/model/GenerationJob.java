@@ -0,0 +1,24 @@
+package model;
+
+import java.nio.file.Path;
+
+/**
+ * A single unit of work for bulk code generation
+ *
+ * @param data   The data to encode
+ * @param format The code format to generate
+ * @param width  Width of the image in pixels
+ * @param height Height of the image in pixels
+ * @param output Where the PNG image is written
+ */
+public record GenerationJob(String data, CodeFormat format, int width, int height, Path output) {
+
+    public GenerationJob {
+        if (format == null) {
+            throw new IllegalArgumentException("Code format cannot be null");
+        }
+        if (output == null) {
+            throw new IllegalArgumentException("Output path cannot be null");
+        }
+    }
+}
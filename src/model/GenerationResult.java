@@ -0,0 +1,26 @@
+package model;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome of a single bulk generation job
+ * Either {@code path} or {@code error} is set, never both
+ *
+ * @param job          The job that was processed, or null if its input row was malformed
+ * @param path         Absolute path of the written image, or null on failure
+ * @param error        The failure cause, or null on success
+ * @param latencyNanos Time from the job entering the pipeline to its completion
+ * @param verification What the generated code decoded back to, or null if it was not verified
+ *                     or could not be decoded
+ */
+public record GenerationResult(GenerationJob job, Path path, Exception error, long latencyNanos,
+                               DecodeResult verification) {
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    public boolean isVerified() {
+        return error == null && verification != null;
+    }
+}
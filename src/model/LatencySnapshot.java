@@ -0,0 +1,27 @@
+package model;
+
+/**
+ * Point-in-time summary of a latency histogram
+ * Percentiles are bucket upper bounds, accurate to about 3%
+ *
+ * @param count      Number of recorded values
+ * @param minNanos   Smallest recorded value
+ * @param maxNanos   Largest recorded value
+ * @param meanNanos  Arithmetic mean of the recorded values
+ * @param p50Nanos   Median
+ * @param p90Nanos   90th percentile
+ * @param p99Nanos   99th percentile
+ * @param p999Nanos  99.9th percentile
+ */
+public record LatencySnapshot(long count, long minNanos, long maxNanos, double meanNanos,
+                              long p50Nanos, long p90Nanos, long p99Nanos, long p999Nanos) {
+
+    public static final LatencySnapshot EMPTY = new LatencySnapshot(0, 0, 0, 0, 0, 0, 0, 0);
+
+    @Override
+    public String toString() {
+        return String.format("n=%d mean=%.3f ms p50=%.3f ms p90=%.3f ms p99=%.3f ms p99.9=%.3f ms max=%.3f ms",
+                count, meanNanos / 1e6, p50Nanos / 1e6, p90Nanos / 1e6, p99Nanos / 1e6, p999Nanos / 1e6,
+                maxNanos / 1e6);
+    }
+}
@@ -0,0 +1,29 @@
+package model;
+
+/**
+ * Enum representing the timed steps of decoding and encoding
+ * Follows the Type-Safe Enum pattern
+ */
+public enum PipelineStage {
+    IMAGE_LOAD("Image load"),
+    LUMINANCE("Luminance conversion"),
+    BINARIZE("Binarization"),
+    DECODE("Detection and decode"),
+    ENCODE("Matrix encode"),
+    IMAGE_WRITE("Image write");
+
+    private final String displayName;
+
+    PipelineStage(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
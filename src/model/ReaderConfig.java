@@ -0,0 +1,93 @@
+package model;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.DecodeHintType;
+
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Decode settings for a reader, translated into ZXing hints once when the reader is built
+ * Limiting the formats is the biggest win: ZXing otherwise tries every 1D and 2D decoder it knows
+ *
+ * @param formats      The formats to look for; never empty
+ * @param tryHarder    Always spend extra time looking for a code, not only after cheaper passes fail
+ * @param pureBarcode  Images contain only an unrotated code on a plain background
+ * @param characterSet Character set for byte-mode content, or null to let ZXing guess
+ */
+public record ReaderConfig(Set<CodeFormat> formats, boolean tryHarder, boolean pureBarcode, Charset characterSet) {
+
+    public ReaderConfig {
+        if (formats == null || formats.isEmpty()) {
+            throw new IllegalArgumentException("At least one format is required");
+        }
+        formats = Collections.unmodifiableSet(EnumSet.copyOf(formats));
+    }
+
+    /**
+     * Default configuration accepting every format the application supports
+     *
+     * @return The configuration
+     */
+    public static ReaderConfig allFormats() {
+        return new ReaderConfig(EnumSet.allOf(CodeFormat.class), false, false, null);
+    }
+
+    /**
+     * Default configuration restricted to the given formats
+     *
+     * @param first The first format
+     * @param rest  Any further formats
+     * @return The configuration
+     */
+    public static ReaderConfig forFormats(CodeFormat first, CodeFormat... rest) {
+        return new ReaderConfig(EnumSet.of(first, rest), false, false, null);
+    }
+
+    public ReaderConfig withTryHarder(boolean tryHarder) {
+        return new ReaderConfig(formats, tryHarder, pureBarcode, characterSet);
+    }
+
+    public ReaderConfig withPureBarcode(boolean pureBarcode) {
+        return new ReaderConfig(formats, tryHarder, pureBarcode, characterSet);
+    }
+
+    public ReaderConfig withCharacterSet(Charset characterSet) {
+        return new ReaderConfig(formats, tryHarder, pureBarcode, characterSet);
+    }
+
+    /**
+     * Get the single format this configuration is limited to
+     *
+     * @return The format, or null if several formats are accepted
+     */
+    public CodeFormat singleFormat() {
+        return formats.size() == 1 ? formats.iterator().next() : null;
+    }
+
+    /**
+     * Build the equivalent ZXing decode hints
+     *
+     * @return An unmodifiable hint map
+     */
+    public Map<DecodeHintType, Object> toHints() {
+        Map<DecodeHintType, Object> hints = new EnumMap<>(DecodeHintType.class);
+        List<BarcodeFormat> possibleFormats = formats.stream().map(CodeFormat::getBarcodeFormat).toList();
+        hints.put(DecodeHintType.POSSIBLE_FORMATS, possibleFormats);
+        if (tryHarder) {
+            hints.put(DecodeHintType.TRY_HARDER, Boolean.TRUE);
+        }
+        if (pureBarcode) {
+            hints.put(DecodeHintType.PURE_BARCODE, Boolean.TRUE);
+        }
+        if (characterSet != null) {
+            hints.put(DecodeHintType.CHARACTER_SET, characterSet.name());
+        }
+        return Collections.unmodifiableMap(hints);
+    }
+}
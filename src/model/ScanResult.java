@@ -0,0 +1,15 @@
+package model;
+
+/**
+ * A code reported by the live scanning pipeline
+ *
+ * @param result        The decode result
+ * @param frameSequence The frame the code was found in
+ * @param latencyNanos  Time from frame capture to the end of decoding
+ */
+public record ScanResult(DecodeResult result, long frameSequence, long latencyNanos) {
+
+    public double latencyMillis() {
+        return latencyNanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,40 @@
+package model;
+
+/**
+ * Point-in-time counters for the live scanning pipeline
+ *
+ * @param framesCaptured       Frames read from the source
+ * @param framesDecoded        Frames that went through a decode attempt
+ * @param framesDropped        Frames replaced by newer ones before a worker was free
+ * @param framesCorrupt        Frames the source skipped because their image could not be decoded
+ * @param framesFailed         Frames whose decode or listener threw an unexpected exception
+ * @param codesReported        Results passed to the listener
+ * @param duplicatesSuppressed Results withheld because the same code was seen within the window
+ * @param elapsedNanos         Time since the pipeline started
+ * @param totalLatencyNanos    Sum of capture-to-decoded latency over decoded frames
+ * @param maxLatencyNanos      Largest capture-to-decoded latency seen
+ */
+public record StreamStats(long framesCaptured, long framesDecoded, long framesDropped, long framesCorrupt,
+                          long framesFailed, long codesReported, long duplicatesSuppressed, long elapsedNanos,
+                          long totalLatencyNanos, long maxLatencyNanos) {
+
+    public double captureFps() {
+        return elapsedNanos == 0 ? 0.0 : framesCaptured * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    public double decodeFps() {
+        return elapsedNanos == 0 ? 0.0 : framesDecoded * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    public double averageLatencyMillis() {
+        return framesDecoded == 0 ? 0.0 : totalLatencyNanos / 1_000_000.0 / framesDecoded;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("captured %d (%.1f fps), decoded %d (%.1f fps), dropped %d, corrupt %d, failed %d, "
+                        + "reported %d, suppressed %d, latency avg %.1f ms max %.1f ms",
+                framesCaptured, captureFps(), framesDecoded, decodeFps(), framesDropped, framesCorrupt, framesFailed,
+                codesReported, duplicatesSuppressed, averageLatencyMillis(), maxLatencyNanos / 1_000_000.0);
+    }
+}
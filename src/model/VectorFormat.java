@@ -0,0 +1,32 @@
+package model;
+
+/**
+ * Enum representing supported resolution-independent output formats
+ * Follows the Type-Safe Enum pattern
+ */
+public enum VectorFormat {
+    SVG("SVG", "svg"),
+    PDF("PDF", "pdf"),
+    EPS("EPS", "eps");
+
+    private final String displayName;
+    private final String extension;
+
+    VectorFormat(String displayName, String extension) {
+        this.displayName = displayName;
+        this.extension = extension;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
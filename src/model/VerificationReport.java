@@ -0,0 +1,45 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Pass/fail report of a generate-and-verify run
+ * A label passes when it was generated, decoded back to its input and written
+ *
+ * @param summary  Counts and timing of the whole run
+ * @param failures Every job that did not pass, in completion order
+ */
+public record VerificationReport(BatchSummary summary, List<GenerationResult> failures) {
+
+    // toString lists at most this many failures
+    private static final int MAX_LISTED_FAILURES = 20;
+
+    public VerificationReport {
+        failures = List.copyOf(failures);
+    }
+
+    public boolean passed() {
+        return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        text.append(passed() ? "PASS: " : "FAIL: ")
+                .append(summary.succeeded()).append(" of ").append(summary.total())
+                .append(" labels verified in ").append(String.format("%.1f ms", summary.elapsedNanos() / 1_000_000.0));
+        for (GenerationResult failure : failures.subList(0, Math.min(failures.size(), MAX_LISTED_FAILURES))) {
+            GenerationJob job = failure.job();
+            text.append(System.lineSeparator()).append("  ");
+            if (job != null) {
+                text.append(job.format()).append(" \"").append(job.data()).append("\" -> ");
+            }
+            text.append(failure.error().getMessage());
+        }
+        if (failures.size() > MAX_LISTED_FAILURES) {
+            text.append(System.lineSeparator())
+                    .append("  ... and ").append(failures.size() - MAX_LISTED_FAILURES).append(" more");
+        }
+        return text.toString();
+    }
+}
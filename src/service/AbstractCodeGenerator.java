@@ -1,49 +1,146 @@
 package service;
 
 import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
 import com.google.zxing.WriterException;
 import com.google.zxing.client.j2se.MatrixToImageWriter;
 import com.google.zxing.common.BitMatrix;
 import model.CodeFormat;
+import model.PipelineStage;
+import model.VectorFormat;
 
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.FileSystems;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Map;
 
 /**
  * Abstract base class for code generators
  * Follows the Template Method pattern and Open/Closed Principle
+ * Instances are shared by {@link factory.CodeGeneratorFactory}, so subclasses must be
+ * thread-safe; ZXing writers hold no per-call state and can be kept in a field
  */
 public abstract class AbstractCodeGenerator implements ICodeGenerator {
     
     protected final CodeFormat format;
     protected final BarcodeFormat barcodeFormat;
+    protected final Map<EncodeHintType, ?> hints;
 
     protected AbstractCodeGenerator(CodeFormat format, BarcodeFormat barcodeFormat) {
+        this(format, barcodeFormat, Map.of());
+    }
+
+    protected AbstractCodeGenerator(CodeFormat format, BarcodeFormat barcodeFormat,
+                                    Map<EncodeHintType, ?> hints) {
         this.format = format;
         this.barcodeFormat = barcodeFormat;
+        this.hints = hints == null ? Map.of() : Map.copyOf(hints);
     }
 
     @Override
     public Path generateCode(String data, String filePath, int width, int height) 
             throws WriterException, IOException {
         
-        if (!validateData(data)) {
-            throw new IllegalArgumentException("Invalid data for " + format.getDisplayName());
-        }
-        
-        BitMatrix bitMatrix = encode(data, width, height);
+        BitMatrix bitMatrix = generateMatrix(data, width, height);
         Path path = FileSystems.getDefault().getPath(filePath);
-        MatrixToImageWriter.writeToPath(bitMatrix, "PNG", path);
+        long write = Metrics.start();
+        BitMatrixPngWriter.write(bitMatrix, path, BitMatrixPngWriter.DEFAULT_DEFLATE_LEVEL);
+        Metrics.stop(PipelineStage.IMAGE_WRITE, write);
         
         return path.toAbsolutePath();
     }
 
+    @Override
+    public BitMatrix generateMatrix(String data, int width, int height) throws WriterException {
+        long start = Metrics.start();
+        boolean success = false;
+        try {
+            if (!validateData(data)) {
+                throw new IllegalArgumentException("Invalid data for " + format.getDisplayName());
+            }
+            BitMatrix matrix = encode(data, width, height);
+            success = true;
+            return matrix;
+        } finally {
+            Metrics.stop(PipelineStage.ENCODE, start);
+            Metrics.encoded(format, success, start);
+        }
+    }
+
+    @Override
+    public BufferedImage generateImage(String data, int width, int height) throws WriterException {
+        BitMatrix bitMatrix = generateMatrix(data, width, height);
+        long write = Metrics.start();
+        BufferedImage image = MatrixToImageWriter.toBufferedImage(bitMatrix);
+        Metrics.stop(PipelineStage.IMAGE_WRITE, write);
+        return image;
+    }
+
+    @Override
+    public byte[] generateBytes(String data, int width, int height) throws WriterException, IOException {
+        BitMatrix bitMatrix = generateMatrix(data, width, height);
+        long write = Metrics.start();
+        byte[] png = BitMatrixPngWriter.toBytes(bitMatrix);
+        Metrics.stop(PipelineStage.IMAGE_WRITE, write);
+        return png;
+    }
+
+    @Override
+    public void generateCode(String data, OutputStream out, int width, int height)
+            throws WriterException, IOException {
+        BitMatrix bitMatrix = generateMatrix(data, width, height);
+        long write = Metrics.start();
+        BitMatrixPngWriter.write(bitMatrix, out);
+        Metrics.stop(PipelineStage.IMAGE_WRITE, write);
+    }
+
+    @Override
+    public void generateCode(String data, WritableByteChannel channel, int width, int height)
+            throws WriterException, IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(generateBytes(data, width, height));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    @Override
+    public void generateVector(String data, VectorFormat vectorFormat, OutputStream out, int width, int height)
+            throws WriterException, IOException {
+        BitMatrix bitMatrix = generateMatrix(data, width, height);
+        long write = Metrics.start();
+        VectorCodeWriter.write(bitMatrix, vectorFormat, out);
+        Metrics.stop(PipelineStage.IMAGE_WRITE, write);
+    }
+
+    @Override
+    public Path generateVectorCode(String data, String filePath, VectorFormat vectorFormat, int width, int height)
+            throws WriterException, IOException {
+        BitMatrix bitMatrix = generateMatrix(data, width, height);
+        Path path = FileSystems.getDefault().getPath(filePath);
+        long write = Metrics.start();
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path))) {
+            VectorCodeWriter.write(bitMatrix, vectorFormat, out);
+        }
+        Metrics.stop(PipelineStage.IMAGE_WRITE, write);
+        return path.toAbsolutePath();
+    }
+
     @Override
     public CodeFormat getFormat() {
         return format;
     }
 
+    @Override
+    public Map<EncodeHintType, ?> getEncodeHints() {
+        return hints;
+    }
+
     /**
      * Template method for encoding data
      * Subclasses can override for custom encoding logic
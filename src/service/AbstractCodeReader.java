@@ -1,44 +1,531 @@
 package service;
 
+import com.google.zxing.Binarizer;
 import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
+import com.google.zxing.LuminanceSource;
 import com.google.zxing.NotFoundException;
+import com.google.zxing.Reader;
 import com.google.zxing.Result;
-import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.ResultPoint;
+import com.google.zxing.common.BitMatrix;
 import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.multi.GenericMultipleBarcodeReader;
 import model.CodeFormat;
+import model.DecodeResult;
+import model.DecodeStage;
+import model.DecodeStageStats;
+import model.PipelineStage;
+import model.ReaderConfig;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Abstract base class for code readers
  * Follows the Template Method pattern
+ * Instances are shared by {@link factory.CodeReaderFactory}, so subclasses must be
+ * thread-safe; stateful ZXing readers should be kept per thread
  */
 public abstract class AbstractCodeReader implements ICodeReader {
     
+    // Images larger than this are also searched tile by tile when looking for multiple codes
+    private static final int MULTI_TILE_SIZE = 1024;
+    private static final int MULTI_TILE_OVERLAP = 256;
+    
+    // Downscaled passes, tried before full resolution when the image is at least twice as large
+    private static final int[] DOWNSCALE_TARGETS = {1024, 2048};
+    private static final DecodeStage[] DOWNSCALED_STAGES = {DecodeStage.DOWNSCALED_1024, DecodeStage.DOWNSCALED_2048};
+    private static final int MIN_DOWNSCALED_SIZE = 64;
+
+    // A pure image has only near-black and near-white pixels and a light border
+    private static final int PURE_DARK = 48;
+    private static final int PURE_LIGHT = 208;
+    private static final int PURE_SAMPLE_ROWS = 32;
+    
     protected final CodeFormat format;
+    protected final ReaderConfig config;
+
+    // 1D-only readers threshold row by row, so only readers of a 2D format binarize the whole image
+    private final boolean thresholdsImage;
+
+    // 1D codes away from a region's centre rows are only found with TRY_HARDER
+    private final Map<DecodeHintType, Object> multiHints;
+    private final Map<DecodePass, Map<DecodeHintType, Object>> passHints = new EnumMap<>(DecodePass.class);
 
-    protected AbstractCodeReader(CodeFormat format) {
+    private final Map<DecodeStage, LongAdder> stageAttempts = counters();
+    private final Map<DecodeStage, LongAdder> stageSuccesses = counters();
+    private final LongAdder stageFailures = new LongAdder();
+
+    protected AbstractCodeReader(CodeFormat format, ReaderConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("Reader configuration cannot be null");
+        }
         this.format = format;
+        this.config = config;
+        this.thresholdsImage = config.formats().stream().anyMatch(CodeFormat::isMatrix);
+        // Only the pure pass assumes a pure image; every other pass must cope with photos
+        ReaderConfig general = config.withPureBarcode(false);
+        this.multiHints = general.withTryHarder(true).toHints();
+        passHints.put(DecodePass.STANDARD, general.toHints());
+        passHints.put(DecodePass.TRY_HARDER, general.withTryHarder(true).toHints());
+        passHints.put(DecodePass.PURE_BARCODE, config.withPureBarcode(true).toHints());
+    }
+
+    private static Map<DecodeStage, LongAdder> counters() {
+        Map<DecodeStage, LongAdder> counters = new EnumMap<>(DecodeStage.class);
+        for (DecodeStage stage : DecodeStage.values()) {
+            counters.put(stage, new LongAdder());
+        }
+        return counters;
     }
 
     @Override
     public String readCode(String filePath) throws IOException, NotFoundException {
-        File file = new File(filePath);
-        BufferedImage bufferedImage = ImageIO.read(file);
-        
-        if (bufferedImage == null) {
+        return readResult(filePath).text();
+    }
+
+    @Override
+    public DecodeResult readResult(String filePath) throws IOException, NotFoundException {
+        long start = System.nanoTime();
+        return decodeLuminance(requireImage(ImageLoader.loadLuminance(Path.of(filePath))), start);
+    }
+
+    @Override
+    public DecodeResult readResult(byte[] imageData) throws IOException, NotFoundException {
+        long start = System.nanoTime();
+        return decodeLuminance(requireImage(ImageLoader.loadLuminance(ByteBuffer.wrap(imageData))), start);
+    }
+
+    @Override
+    public DecodeResult readResult(ByteBuffer imageData) throws IOException, NotFoundException {
+        // Heap and direct buffers alike are decoded in place
+        long start = System.nanoTime();
+        return decodeLuminance(requireImage(ImageLoader.loadLuminance(imageData)), start);
+    }
+
+    @Override
+    public DecodeResult readResult(InputStream imageStream) throws IOException, NotFoundException {
+        long start = System.nanoTime();
+        ByteBuffer imageData = ByteBuffer.wrap(imageStream.readAllBytes());
+        return decodeLuminance(requireImage(ImageLoader.loadLuminance(imageData)), start);
+    }
+
+    @Override
+    public DecodeResult readLuminance(byte[] luminance, int width, int height, int stride)
+            throws NotFoundException {
+        long start = System.nanoTime();
+        // A packed plane is thresholded in place, without a copy
+        LuminanceSource source = new ByteBufferLuminanceSource(ByteBuffer.wrap(luminance), width, height, stride);
+        return decodeLuminance(source, start);
+    }
+
+    @Override
+    public DecodeResult readLuminance(ByteBuffer luminance, int width, int height, int stride)
+            throws NotFoundException {
+        long start = System.nanoTime();
+        return decodeLuminance(new ByteBufferLuminanceSource(luminance, width, height, stride), start);
+    }
+
+    @Override
+    public DecodeResult readMatrix(BitMatrix matrix) throws NotFoundException {
+        long start = System.nanoTime();
+        // The matrix already is the black matrix, so no thresholding happens at all
+        RegionLuminanceSource source = new RegionLuminanceSource(new BitMatrixLuminanceSource(matrix));
+        Binarizer binarizer = new SharedMatrixBinarizer(source, matrix);
+
+        Result result = attempt(DecodeStage.PURE_BARCODE, binarizer, DecodePass.PURE_BARCODE);
+        if (result != null) {
+            return decoded(DecodeResult.from(result, System.nanoTime() - start, DecodeStage.PURE_BARCODE), start);
+        }
+        result = attempt(DecodeStage.FULL_RESOLUTION, binarizer, DecodePass.STANDARD);
+        if (result != null) {
+            return decoded(DecodeResult.from(result, System.nanoTime() - start, DecodeStage.FULL_RESOLUTION), start);
+        }
+        throw notFound(start);
+    }
+
+    @Override
+    public List<DecodeResult> readMultiple(String filePath) throws IOException, NotFoundException {
+        long start = System.nanoTime();
+        return decodeMultiple(requireImage(ImageLoader.loadLuminance(Path.of(filePath))), start);
+    }
+
+    @Override
+    public List<DecodeResult> readMultiple(byte[] imageData) throws IOException, NotFoundException {
+        long start = System.nanoTime();
+        return decodeMultiple(requireImage(ImageLoader.loadLuminance(ByteBuffer.wrap(imageData))), start);
+    }
+
+    private List<DecodeResult> decodeMultiple(LuminanceSource source, long start) throws NotFoundException {
+        List<Result> found = findAll(source);
+        if (found.isEmpty()) {
+            Metrics.decoded(format, false, start);
+            throw NotFoundException.getNotFoundInstance();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        List<DecodeResult> results = found.stream().map(result -> DecodeResult.from(result, elapsed)).toList();
+        if (Metrics.installed() != null) {
+            for (DecodeResult result : results) {
+                Metrics.decoded(result.codeFormat(), true, start);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Search a luminance source for every code it contains
+     *
+     * @param source The image to search
+     * @return Distinct results in the source's coordinates; empty if nothing was found
+     */
+    List<Result> findAll(LuminanceSource source) {
+        // Threshold the whole image once; every region below reuses these bits
+        BitMatrix blackMatrix;
+        long threshold = Metrics.start();
+        try {
+            blackMatrix = new HybridBinarizer(source).getBlackMatrix();
+        } catch (NotFoundException e) {
+            return List.of();
+        } finally {
+            Metrics.stop(PipelineStage.BINARIZE, threshold);
+        }
+        RegionLuminanceSource root = new RegionLuminanceSource(source);
+
+        List<int[]> regions = multiRegions(source.getWidth(), source.getHeight());
+        List<Result> found = regions.parallelStream()
+                .flatMap(region -> decodeRegion(root, blackMatrix, region).stream())
+                .toList();
+
+        List<Result> distinct = new ArrayList<>();
+        addDistinct(distinct, found);
+        return distinct;
+    }
+
+    private List<Result> decodeRegion(RegionLuminanceSource root, BitMatrix blackMatrix, int[] region) {
+        RegionLuminanceSource regionSource = (RegionLuminanceSource) root.crop(region[0], region[1], region[2], region[3]);
+        BinaryBitmap bitmap = new BinaryBitmap(new SharedMatrixBinarizer(regionSource, blackMatrix));
+        Result[] results;
+        long detect = Metrics.start();
+        try {
+            results = new GenericMultipleBarcodeReader(engine()).decodeMultiple(bitmap, multiHints);
+        } catch (NotFoundException e) {
+            return List.of();
+        } finally {
+            Metrics.stop(PipelineStage.DECODE, detect);
+        }
+
+        List<Result> translated = new ArrayList<>(results.length);
+        for (Result result : results) {
+            translated.add(translate(result, region[0], region[1]));
+        }
+        return translated;
+    }
+
+    /**
+     * Regions to search: the whole image, plus overlapping tiles when the image is large
+     * so that small codes are not lost among many others
+     */
+    private static List<int[]> multiRegions(int width, int height) {
+        List<int[]> regions = new ArrayList<>();
+        regions.add(new int[]{0, 0, width, height});
+        if (Math.max(width, height) <= MULTI_TILE_SIZE + MULTI_TILE_OVERLAP) {
+            return regions;
+        }
+        int step = MULTI_TILE_SIZE - MULTI_TILE_OVERLAP;
+        for (int top = 0; top < height; top += step) {
+            for (int left = 0; left < width; left += step) {
+                int tileWidth = Math.min(MULTI_TILE_SIZE, width - left);
+                int tileHeight = Math.min(MULTI_TILE_SIZE, height - top);
+                regions.add(new int[]{left, top, tileWidth, tileHeight});
+                if (left + tileWidth >= width) {
+                    break;
+                }
+            }
+            if (top + MULTI_TILE_SIZE >= height) {
+                break;
+            }
+        }
+        return regions;
+    }
+
+    /**
+     * Add results that are not already present, judged by {@link #isSameCode}
+     */
+    static void addDistinct(List<Result> distinct, List<Result> candidates) {
+        for (Result candidate : candidates) {
+            if (distinct.stream().noneMatch(existing -> isSameCode(existing, candidate))) {
+                distinct.add(candidate);
+            }
+        }
+    }
+
+    /**
+     * Shift a result's points by a region offset
+     */
+    static Result translate(Result result, int left, int top) {
+        ResultPoint[] points = result.getResultPoints();
+        if ((left == 0 && top == 0) || points == null) {
+            return result;
+        }
+        ResultPoint[] moved = new ResultPoint[points.length];
+        for (int i = 0; i < points.length; i++) {
+            moved[i] = points[i] == null ? null : new ResultPoint(points[i].getX() + left, points[i].getY() + top);
+        }
+        Result translated = new Result(result.getText(), result.getRawBytes(), result.getNumBits(), moved,
+                result.getBarcodeFormat(), result.getTimestamp());
+        translated.putAllMetadata(result.getResultMetadata());
+        return translated;
+    }
+
+    /**
+     * Two results are the same code if they carry the same content and overlap in the image
+     * Identical labels at different positions are kept apart
+     */
+    private static boolean isSameCode(Result a, Result b) {
+        if (!a.getText().equals(b.getText()) || a.getBarcodeFormat() != b.getBarcodeFormat()) {
+            return false;
+        }
+        float[] boxA = bounds(a.getResultPoints());
+        float[] boxB = bounds(b.getResultPoints());
+        if (boxA == null || boxB == null) {
+            return true;
+        }
+        // Pad by a few pixels so 1D results, whose points sit on a single line, still overlap
+        float pad = 8;
+        return boxA[0] - pad <= boxB[2] && boxB[0] - pad <= boxA[2]
+                && boxA[1] - pad <= boxB[3] && boxB[1] - pad <= boxA[3];
+    }
+
+    private static float[] bounds(ResultPoint[] points) {
+        if (points == null || points.length == 0) {
+            return null;
+        }
+        float[] box = {Float.MAX_VALUE, Float.MAX_VALUE, -Float.MAX_VALUE, -Float.MAX_VALUE};
+        for (ResultPoint point : points) {
+            if (point != null) {
+                box[0] = Math.min(box[0], point.getX());
+                box[1] = Math.min(box[1], point.getY());
+                box[2] = Math.max(box[2], point.getX());
+                box[3] = Math.max(box[3], point.getY());
+            }
+        }
+        return box[0] == Float.MAX_VALUE ? null : box;
+    }
+
+    private static LuminanceSource requireImage(LuminanceSource source) throws IOException {
+        if (source == null) {
             throw new IOException("Unable to read image file");
         }
+        return source;
+    }
+
+    private DecodeResult decodeLuminance(LuminanceSource source, long start) throws NotFoundException {
+        DecodeContext context = DecodeContext.acquire();
+        try {
+            return decodeLuminance(source, start, context);
+        } finally {
+            context.release();
+        }
+    }
+
+    /**
+     * Decode with escalating cost: a pure-barcode pass for clean synthetic images, downscaled
+     * passes, then full resolution, then TRY_HARDER, then the global histogram binarizer
+     * Thresholding buffers come from the thread's context, so same-sized frames reuse them
+     */
+    private DecodeResult decodeLuminance(LuminanceSource source, long start, DecodeContext context)
+            throws NotFoundException {
+        if (config.pureBarcode() || looksPure(source, context.row(source.getWidth()))) {
+            // Modules are sampled straight from the thresholded image, with no detector search
+            Result result = attempt(DecodeStage.PURE_BARCODE, new ReusableGlobalHistogramBinarizer(source, context),
+                    DecodePass.PURE_BARCODE);
+            if (result != null) {
+                return decoded(DecodeResult.from(result, System.nanoTime() - start, DecodeStage.PURE_BARCODE), start);
+            }
+        }
+
+        int longest = Math.max(source.getWidth(), source.getHeight());
+        int previousFactor = 1;
+        for (int i = 0; i < DOWNSCALE_TARGETS.length; i++) {
+            int factor = longest / DOWNSCALE_TARGETS[i];
+            if (factor < 2 || factor == previousFactor) {
+                continue;
+            }
+            previousFactor = factor;
+            long shrink = Metrics.start();
+            LuminanceSource downscaled = downscale(source, factor, context);
+            Metrics.stop(PipelineStage.LUMINANCE, shrink);
+            if (downscaled == null) {
+                continue;
+            }
+            Result result = attempt(DOWNSCALED_STAGES[i], new ReusableHybridBinarizer(downscaled, context),
+                    DecodePass.STANDARD);
+            if (result != null) {
+                return decoded(DecodeResult.from(scale(result, factor), System.nanoTime() - start,
+                        DOWNSCALED_STAGES[i]), start);
+            }
+        }
+
+        Binarizer hybrid = new ReusableHybridBinarizer(source, context);
+        Result result = attempt(DecodeStage.FULL_RESOLUTION, hybrid, DecodePass.STANDARD);
+        if (result != null) {
+            return decoded(DecodeResult.from(result, System.nanoTime() - start, DecodeStage.FULL_RESOLUTION), start);
+        }
+        if (!config.tryHarder()) {
+            // Reuse the binarizer so the black matrix computed above is not recomputed
+            result = attempt(DecodeStage.TRY_HARDER, hybrid, DecodePass.TRY_HARDER);
+            if (result != null) {
+                return decoded(DecodeResult.from(result, System.nanoTime() - start, DecodeStage.TRY_HARDER), start);
+            }
+        }
+        result = attempt(DecodeStage.GLOBAL_HISTOGRAM, new ReusableGlobalHistogramBinarizer(source, context),
+                DecodePass.TRY_HARDER);
+        if (result != null) {
+            return decoded(DecodeResult.from(result, System.nanoTime() - start, DecodeStage.GLOBAL_HISTOGRAM), start);
+        }
+
+        throw notFound(start);
+    }
+
+    private Result attempt(DecodeStage stage, Binarizer binarizer, DecodePass pass) {
+        stageAttempts.get(stage).increment();
+        BinaryBitmap bitmap = new BinaryBitmap(binarizer);
+        long threshold = thresholdsImage ? Metrics.start() : 0;
+        if (threshold != 0) {
+            // Only when measuring: threshold up front so binarizing and detection are timed apart;
+            // the bitmap caches the matrix, and a failure here is left for decode() to report
+            // 1D-only passes never build the matrix, so their row thresholding stays in DECODE
+            try {
+                bitmap.getBlackMatrix();
+            } catch (NotFoundException e) {
+                // Row-based 1D readers may still succeed
+            }
+            Metrics.stop(PipelineStage.BINARIZE, threshold);
+        }
+        long detect = Metrics.start();
+        try {
+            Result result = decode(bitmap, pass);
+            stageSuccesses.get(stage).increment();
+            return result;
+        } catch (NotFoundException e) {
+            return null;
+        } finally {
+            Metrics.stop(PipelineStage.DECODE, detect);
+        }
+    }
+
+    private static DecodeResult decoded(DecodeResult result, long start) {
+        if (Metrics.installed() != null) {
+            Metrics.decoded(result.codeFormat(), true, start);
+        }
+        return result;
+    }
+
+    private NotFoundException notFound(long start) {
+        stageFailures.increment();
+        Metrics.decoded(format, false, start);
+        return NotFoundException.getNotFoundInstance();
+    }
+
+    /**
+     * Check whether an image looks machine-generated: nearly every sampled pixel is close to
+     * black or white and the outermost columns are light (the quiet zone)
+     * Top and bottom rows are not checked because 1D writers draw bars edge to edge vertically
+     * Reads only a few dozen rows, so it costs far less than a binarization
+     *
+     * @param row Scratch buffer of at least the source's width
+     */
+    static boolean looksPure(LuminanceSource source, byte[] row) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        if (width < 21 || height < 21) {
+            return false;
+        }
+
+        int rows = Math.min(height, PURE_SAMPLE_ROWS);
+        int midTones = 0;
+        int allowedMidTones = rows * width / 100;
+        for (int i = 0; i < rows; i++) {
+            int y = i == rows - 1 ? height - 1 : i * height / rows;
+            row = source.getRow(y, row);
+            if ((row[0] & 0xFF) < PURE_LIGHT || (row[width - 1] & 0xFF) < PURE_LIGHT) {
+                return false;
+            }
+            for (int x = 0; x < width; x++) {
+                int value = row[x] & 0xFF;
+                if (value > PURE_DARK && value < PURE_LIGHT && ++midTones > allowedMidTones) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
 
-        BinaryBitmap binaryBitmap = new BinaryBitmap(
-                new HybridBinarizer(
-                        new BufferedImageLuminanceSource(bufferedImage)));
+    /**
+     * Box-filter a source down by an integer factor into the context's plane for that size
+     *
+     * @return The downscaled source, or null if it would be too small to hold a code
+     */
+    static LuminanceSource downscale(LuminanceSource source, int factor, DecodeContext context) {
+        int width = source.getWidth() / factor;
+        int height = source.getHeight() / factor;
+        if (width < MIN_DOWNSCALED_SIZE || height < MIN_DOWNSCALED_SIZE) {
+            return null;
+        }
 
-        Result result = decode(binaryBitmap);
-        return result.getText();
+        byte[] pixels = context.buffers(width, height).plane();
+        int[] sums = context.sums(width);
+        byte[] row = context.row(source.getWidth());
+        int area = factor * factor;
+        for (int y = 0; y < height; y++) {
+            Arrays.fill(sums, 0, width, 0);
+            for (int dy = 0; dy < factor; dy++) {
+                row = source.getRow(y * factor + dy, row);
+                for (int x = 0, offset = 0; x < width; x++) {
+                    int sum = 0;
+                    for (int dx = 0; dx < factor; dx++) {
+                        sum += row[offset++] & 0xFF;
+                    }
+                    sums[x] += sum;
+                }
+            }
+            int rowOffset = y * width;
+            for (int x = 0; x < width; x++) {
+                pixels[rowOffset + x] = (byte) (sums[x] / area);
+            }
+        }
+        return new ByteBufferLuminanceSource(ByteBuffer.wrap(pixels), width, height, width);
+    }
+
+    /**
+     * Map a result found on a downscaled image back to full-resolution coordinates
+     */
+    private static Result scale(Result result, int factor) {
+        ResultPoint[] points = result.getResultPoints();
+        if (points == null) {
+            return result;
+        }
+        // Each downscaled pixel covers a factor x factor block; map to the block centre
+        float offset = factor / 2.0f;
+        ResultPoint[] scaled = new ResultPoint[points.length];
+        for (int i = 0; i < points.length; i++) {
+            scaled[i] = points[i] == null ? null
+                    : new ResultPoint(points[i].getX() * factor + offset, points[i].getY() * factor + offset);
+        }
+        Result rescaled = new Result(result.getText(), result.getRawBytes(), result.getNumBits(), scaled,
+                result.getBarcodeFormat(), result.getTimestamp());
+        rescaled.putAllMetadata(result.getResultMetadata());
+        return rescaled;
     }
 
     @Override
@@ -46,9 +533,61 @@ public abstract class AbstractCodeReader implements ICodeReader {
         return format;
     }
 
+    /**
+     * Get the configuration this reader was built with
+     *
+     * @return The reader configuration
+     */
+    public ReaderConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Get a snapshot of how often each decode stage was tried and succeeded
+     *
+     * @return The current statistics
+     */
+    public DecodeStageStats getStageStats() {
+        Map<DecodeStage, Long> attempts = new EnumMap<>(DecodeStage.class);
+        Map<DecodeStage, Long> successes = new EnumMap<>(DecodeStage.class);
+        for (DecodeStage stage : DecodeStage.values()) {
+            attempts.put(stage, stageAttempts.get(stage).sum());
+            successes.put(stage, stageSuccesses.get(stage).sum());
+        }
+        return new DecodeStageStats(attempts, successes, stageFailures.sum());
+    }
+
     /**
      * Template method for decoding
      * Subclasses can override for custom decoding logic
+     *
+     * @param binaryBitmap The image to decode
+     * @param pass         The kind of pass; decode with {@link #hints(DecodePass)} for it
+     */
+    protected abstract Result decode(BinaryBitmap binaryBitmap, DecodePass pass) throws NotFoundException;
+
+    /**
+     * Get the ZXing hints for a kind of decode pass, derived once from the configuration
+     *
+     * @param pass The kind of pass
+     * @return An unmodifiable hint map
+     */
+    protected final Map<DecodeHintType, Object> hints(DecodePass pass) {
+        return passHints.get(pass);
+    }
+
+    /**
+     * Kinds of decode pass, each with its own set of hints
+     */
+    protected enum DecodePass {
+        STANDARD,
+        TRY_HARDER,
+        PURE_BARCODE
+    }
+
+    /**
+     * Get a ZXing reader to drive multi-code search
+     * The search passes its own hints, so the reader must not be one shared with {@link #decode}
      */
-    protected abstract Result decode(BinaryBitmap binaryBitmap) throws NotFoundException;
+    protected abstract Reader engine();
 }
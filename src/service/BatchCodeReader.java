@@ -0,0 +1,176 @@
+package service;
+
+import model.BatchReadResult;
+import model.BatchSummary;
+import model.DecodeResult;
+
+import javax.imageio.ImageIO;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Decodes many image files concurrently on a bounded worker pool
+ * Results are streamed to a listener as soon as each file finishes
+ * Depends only on {@link ICodeReader}, following the Dependency Inversion Principle (DIP)
+ */
+public class BatchCodeReader implements AutoCloseable {
+
+    private static final Set<String> IMAGE_SUFFIXES = Stream.of(ImageIO.getReaderFileSuffixes())
+            .map(s -> s.toLowerCase(Locale.ROOT))
+            .collect(Collectors.toUnmodifiableSet());
+
+    private final ICodeReader reader;
+    private final ExecutorService executor;
+    private final int maxInFlight;
+
+    /**
+     * Create a batch reader with one worker per available processor
+     *
+     * @param reader The reader used to decode each file (must be thread-safe)
+     */
+    public BatchCodeReader(ICodeReader reader) {
+        this(reader, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a batch reader with a fixed number of workers
+     *
+     * @param reader  The reader used to decode each file (must be thread-safe)
+     * @param threads Number of worker threads
+     */
+    public BatchCodeReader(ICodeReader reader, int threads) {
+        if (reader == null) {
+            throw new IllegalArgumentException("Reader cannot be null");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1");
+        }
+        this.reader = reader;
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "batch-reader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Keep a small backlog per worker so huge inputs never queue up all at once
+        this.maxInFlight = threads * 4;
+    }
+
+    /**
+     * Decode every image file in a directory
+     *
+     * @param directory The directory to scan
+     * @param recursive Whether to descend into sub-directories
+     * @param listener  Receives each result as soon as it completes, on the calling thread
+     * @return Summary of the whole run
+     * @throws IOException          If the directory cannot be listed
+     * @throws InterruptedException If the calling thread is interrupted while waiting
+     */
+    public BatchSummary readDirectory(Path directory, boolean recursive, Consumer<BatchReadResult> listener)
+            throws IOException, InterruptedException {
+        try (Stream<Path> files = (recursive ? Files.walk(directory) : Files.list(directory))) {
+            return readAll(files.filter(Files::isRegularFile).filter(BatchCodeReader::isImageFile).iterator(),
+                    listener);
+        }
+    }
+
+    /**
+     * Decode every file in the given collection
+     *
+     * @param files    The files to decode
+     * @param listener Receives each result as soon as it completes, on the calling thread
+     * @return Summary of the whole run
+     * @throws InterruptedException If the calling thread is interrupted while waiting
+     */
+    public BatchSummary readAll(Iterable<Path> files, Consumer<BatchReadResult> listener)
+            throws InterruptedException {
+        return readAll(files.iterator(), listener);
+    }
+
+    private BatchSummary readAll(Iterator<Path> files, Consumer<BatchReadResult> listener)
+            throws InterruptedException {
+        CompletionService<BatchReadResult> completion = new ExecutorCompletionService<>(executor);
+        long start = System.nanoTime();
+        int inFlight = 0;
+        int total = 0;
+        int succeeded = 0;
+        long totalLatency = 0;
+
+        while (files.hasNext() || inFlight > 0) {
+            while (inFlight < maxInFlight && files.hasNext()) {
+                Path file = files.next();
+                completion.submit(() -> readOne(file));
+                inFlight++;
+            }
+
+            BatchReadResult result = take(completion);
+            inFlight--;
+            total++;
+            totalLatency += result.latencyNanos();
+            if (result.isSuccess()) {
+                succeeded++;
+            }
+            if (listener != null) {
+                listener.accept(result);
+            }
+        }
+
+        return new BatchSummary(total, succeeded, total - succeeded, System.nanoTime() - start, totalLatency);
+    }
+
+    private BatchReadResult readOne(Path file) {
+        long start = System.nanoTime();
+        try {
+            DecodeResult result = reader.readResult(file.toString());
+            return BatchReadResult.success(file, result, System.nanoTime() - start);
+        } catch (Exception e) {
+            return BatchReadResult.failure(file, e, System.nanoTime() - start);
+        }
+    }
+
+    private static BatchReadResult take(CompletionService<BatchReadResult> completion)
+            throws InterruptedException {
+        Future<BatchReadResult> future = completion.take();
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            // readOne never throws, so this only happens on unexpected errors
+            throw new IllegalStateException("Batch worker failed", e.getCause());
+        }
+    }
+
+    /**
+     * Check whether a file has an extension ImageIO can decode
+     *
+     * @param file The file to check
+     * @return true if the file looks like a readable image
+     */
+    public static boolean isImageFile(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 && IMAGE_SUFFIXES.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
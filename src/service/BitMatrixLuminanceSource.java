@@ -0,0 +1,43 @@
+package service;
+
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.common.BitMatrix;
+
+/**
+ * Luminance view of a {@link BitMatrix}: set bits are black (0), clear bits white (255)
+ * Rows are rendered on demand; decoders normally read the matrix itself through
+ * {@link SharedMatrixBinarizer} and never ask for pixels
+ */
+class BitMatrixLuminanceSource extends LuminanceSource {
+
+    private final BitMatrix matrix;
+
+    BitMatrixLuminanceSource(BitMatrix matrix) {
+        super(matrix.getWidth(), matrix.getHeight());
+        this.matrix = matrix;
+    }
+
+    @Override
+    public byte[] getRow(int y, byte[] row) {
+        int width = getWidth();
+        if (row == null || row.length < width) {
+            row = new byte[width];
+        }
+        for (int x = 0; x < width; x++) {
+            row[x] = matrix.get(x, y) ? 0 : (byte) 0xFF;
+        }
+        return row;
+    }
+
+    @Override
+    public byte[] getMatrix() {
+        int width = getWidth();
+        int height = getHeight();
+        byte[] pixels = new byte[width * height];
+        byte[] row = new byte[width];
+        for (int y = 0; y < height; y++) {
+            System.arraycopy(getRow(y, row), 0, pixels, y * width, width);
+        }
+        return pixels;
+    }
+}
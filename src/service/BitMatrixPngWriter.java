@@ -0,0 +1,217 @@
+package service;
+
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.BitMatrix;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes a {@link BitMatrix} as a 1-bit grayscale PNG, straight from its packed rows
+ * No intermediate {@code BufferedImage} is created and no ImageIO lookup happens,
+ * and the files are far smaller than the 8-bit RGB output of {@code MatrixToImageWriter}
+ */
+public final class BitMatrixPngWriter {
+
+    public static final int DEFAULT_DEFLATE_LEVEL = 6;
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int IDAT_CHUNK_SIZE = 64 * 1024;
+
+    // BitArray packs pixel 0 in the lowest bit; PNG wants it in the highest, and set means black
+    private static final byte[] PNG_BYTE = new byte[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            PNG_BYTE[i] = (byte) ~(Integer.reverse(i) >>> 24);
+        }
+    }
+
+    private BitMatrixPngWriter() {
+    }
+
+    /**
+     * Encode a matrix as PNG bytes with the default deflate level
+     *
+     * @param matrix The matrix to encode; set bits are black
+     * @return The PNG file contents
+     */
+    public static byte[] toBytes(BitMatrix matrix) {
+        return toBytes(matrix, DEFAULT_DEFLATE_LEVEL);
+    }
+
+    /**
+     * Encode a matrix as PNG bytes
+     *
+     * @param matrix       The matrix to encode; set bits are black
+     * @param deflateLevel 0 (no compression, fastest) to 9 (smallest)
+     * @return The PNG file contents
+     */
+    public static byte[] toBytes(BitMatrix matrix, int deflateLevel) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(estimateSize(matrix));
+        try {
+            write(matrix, out, deflateLevel);
+        } catch (IOException e) {
+            throw new IllegalStateException("In-memory streams do not fail", e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Write a matrix as a PNG file
+     *
+     * @param matrix       The matrix to encode; set bits are black
+     * @param path         The file to create or replace
+     * @param deflateLevel 0 (no compression, fastest) to 9 (smallest)
+     * @throws IOException If the file cannot be written
+     */
+    public static void write(BitMatrix matrix, Path path, int deflateLevel) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path), IDAT_CHUNK_SIZE)) {
+            write(matrix, out, deflateLevel);
+        }
+    }
+
+    /**
+     * Write a matrix as PNG to a stream with the default deflate level
+     * The stream is flushed but not closed
+     *
+     * @param matrix The matrix to encode; set bits are black
+     * @param out    The stream to write to
+     * @throws IOException If writing fails
+     */
+    public static void write(BitMatrix matrix, OutputStream out) throws IOException {
+        write(matrix, out, DEFAULT_DEFLATE_LEVEL);
+    }
+
+    /**
+     * Write a matrix as PNG to a stream
+     * The stream is flushed but not closed
+     *
+     * @param matrix       The matrix to encode; set bits are black
+     * @param out          The stream to write to
+     * @param deflateLevel 0 (no compression, fastest) to 9 (smallest)
+     * @throws IOException If writing fails
+     */
+    public static void write(BitMatrix matrix, OutputStream out, int deflateLevel) throws IOException {
+        if (deflateLevel < 0 || deflateLevel > 9) {
+            throw new IllegalArgumentException("Deflate level must be between 0 and 9");
+        }
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+
+        out.write(SIGNATURE);
+
+        byte[] header = new byte[13];
+        putInt(header, 0, width);
+        putInt(header, 4, height);
+        header[8] = 1;  // bit depth
+        header[9] = 0;  // color type: grayscale
+        header[10] = 0; // compression: deflate
+        header[11] = 0; // filter method: adaptive
+        header[12] = 0; // interlace: none
+        writeChunk(out, "IHDR", header, header.length);
+
+        Deflater deflater = new Deflater(deflateLevel);
+        try {
+            IdatOutputStream idat = new IdatOutputStream(out);
+            DeflaterOutputStream deflated = new DeflaterOutputStream(idat, deflater, IDAT_CHUNK_SIZE);
+
+            int rowBytes = (width + 7) / 8;
+            byte[] scanline = new byte[1 + rowBytes]; // leading 0 selects filter type None
+            BitArray row = new BitArray(width);
+            for (int y = 0; y < height; y++) {
+                row = matrix.getRow(y, row);
+                int[] words = row.getBitArray();
+                for (int i = 0; i < rowBytes; i++) {
+                    scanline[1 + i] = PNG_BYTE[(words[i >> 2] >>> ((i & 3) * 8)) & 0xFF];
+                }
+                deflated.write(scanline);
+            }
+            deflated.finish();
+            idat.flushChunk();
+        } finally {
+            deflater.end();
+        }
+
+        writeChunk(out, "IEND", new byte[0], 0);
+        out.flush();
+    }
+
+    private static int estimateSize(BitMatrix matrix) {
+        // Code images compress extremely well; this is a generous starting capacity
+        return Math.max(256, matrix.getWidth() * matrix.getHeight() / 64);
+    }
+
+    private static void writeChunk(OutputStream out, String type, byte[] data, int length) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+
+        byte[] word = new byte[4];
+        putInt(word, 0, length);
+        out.write(word);
+        out.write(typeBytes);
+        out.write(data, 0, length);
+        putInt(word, 0, (int) crc.getValue());
+        out.write(word);
+    }
+
+    private static void putInt(byte[] buffer, int offset, int value) {
+        buffer[offset] = (byte) (value >>> 24);
+        buffer[offset + 1] = (byte) (value >>> 16);
+        buffer[offset + 2] = (byte) (value >>> 8);
+        buffer[offset + 3] = (byte) value;
+    }
+
+    /**
+     * Collects compressed data and emits it as a sequence of bounded IDAT chunks
+     */
+    private static final class IdatOutputStream extends OutputStream {
+
+        private final OutputStream out;
+        private final byte[] buffer = new byte[IDAT_CHUNK_SIZE];
+        private int count;
+
+        IdatOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == buffer.length) {
+                flushChunk();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (count == buffer.length) {
+                    flushChunk();
+                }
+                int n = Math.min(length, buffer.length - count);
+                System.arraycopy(bytes, offset, buffer, count, n);
+                count += n;
+                offset += n;
+                length -= n;
+            }
+        }
+
+        void flushChunk() throws IOException {
+            if (count > 0) {
+                writeChunk(out, "IDAT", buffer, count);
+                count = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,428 @@
+package service;
+
+import com.google.zxing.NotFoundException;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import factory.CodeGeneratorFactory;
+import factory.CodeReaderFactory;
+import model.BatchSummary;
+import model.CodeFormat;
+import model.DecodeResult;
+import model.GenerationJob;
+import model.GenerationResult;
+import model.PipelineStage;
+import model.ReaderConfig;
+import model.VerificationReport;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Generates large numbers of code images through a three-stage pipeline:
+ * matrix encoding, PNG compression and disk writes each run on their own pool
+ * The number of jobs in flight is bounded, so memory stays flat for any input size
+ * In verify mode each matrix is decoded back in memory right after encoding, and only
+ * labels that round-trip are compressed and written
+ */
+public class BulkCodeGenerator implements AutoCloseable {
+
+    private static final String CSV_HEADER = "data,format,size,path";
+
+    private final ExecutorService encodeExecutor;
+    private final ExecutorService compressExecutor;
+    private final ExecutorService writeExecutor;
+    private final int maxInFlight;
+    private final int deflateLevel;
+
+    /**
+     * Create a pipeline sized to the available processors
+     */
+    public BulkCodeGenerator() {
+        this(Runtime.getRuntime().availableProcessors(), 2);
+    }
+
+    /**
+     * Create a pipeline with explicit stage sizes and the default PNG compression
+     *
+     * @param cpuThreads   Threads for each of the encode and compress stages
+     * @param writeThreads Threads for the disk write stage
+     */
+    public BulkCodeGenerator(int cpuThreads, int writeThreads) {
+        this(cpuThreads, writeThreads, BitMatrixPngWriter.DEFAULT_DEFLATE_LEVEL);
+    }
+
+    /**
+     * Create a pipeline with explicit stage sizes
+     *
+     * @param cpuThreads   Threads for each of the encode and compress stages
+     * @param writeThreads Threads for the disk write stage
+     * @param deflateLevel PNG deflate level, 0 (fastest) to 9 (smallest)
+     */
+    public BulkCodeGenerator(int cpuThreads, int writeThreads, int deflateLevel) {
+        if (cpuThreads < 1 || writeThreads < 1) {
+            throw new IllegalArgumentException("Thread counts must be at least 1");
+        }
+        if (deflateLevel < 0 || deflateLevel > 9) {
+            throw new IllegalArgumentException("Deflate level must be between 0 and 9");
+        }
+        this.encodeExecutor = newPool(cpuThreads, "bulk-encode");
+        this.compressExecutor = newPool(cpuThreads, "bulk-compress");
+        this.writeExecutor = newPool(writeThreads, "bulk-write");
+        // Enough to keep every stage busy without letting buffers pile up
+        this.maxInFlight = (cpuThreads * 2 + writeThreads) * 2;
+        this.deflateLevel = deflateLevel;
+    }
+
+    /**
+     * Run every job in the stream through the pipeline
+     *
+     * @param jobs     The jobs to generate; consumed lazily
+     * @param listener Receives each result as soon as it completes, on the calling thread
+     * @return Summary of the whole run
+     * @throws InterruptedException If the calling thread is interrupted while waiting
+     */
+    public BatchSummary generateAll(Stream<GenerationJob> jobs, Consumer<GenerationResult> listener)
+            throws InterruptedException {
+        return generateAll(jobs.iterator(), listener);
+    }
+
+    /**
+     * Run every job from the iterator through the pipeline
+     *
+     * A job the iterator cannot produce because its input is malformed, signalled with an
+     * {@link IllegalArgumentException}, is reported as a failed result without a job
+     *
+     * @param jobs     The jobs to generate; consumed lazily
+     * @param listener Receives each result as soon as it completes, on the calling thread
+     * @return Summary of the whole run
+     * @throws InterruptedException If the calling thread is interrupted while waiting
+     */
+    public BatchSummary generateAll(Iterator<GenerationJob> jobs, Consumer<GenerationResult> listener)
+            throws InterruptedException {
+        return run(jobs, listener, false, null);
+    }
+
+    /**
+     * Generate every job and confirm it decodes back to its input before it is written
+     * Verification decodes the encoded matrix directly; no image is re-read from disk
+     *
+     * @param jobs     The jobs to generate; consumed lazily
+     * @param listener Receives each result as soon as it completes, on the calling thread
+     * @return Pass/fail report listing every job that did not verify or could not be written
+     * @throws InterruptedException If the calling thread is interrupted while waiting
+     */
+    public VerificationReport generateAndVerify(Stream<GenerationJob> jobs, Consumer<GenerationResult> listener)
+            throws InterruptedException {
+        return generateAndVerify(jobs.iterator(), listener);
+    }
+
+    /**
+     * Generate every job from the iterator and confirm it decodes back to its input before it is written
+     *
+     * @param jobs     The jobs to generate; consumed lazily
+     * @param listener Receives each result as soon as it completes, on the calling thread
+     * @return Pass/fail report listing every job that did not verify or could not be written
+     * @throws InterruptedException If the calling thread is interrupted while waiting
+     */
+    public VerificationReport generateAndVerify(Iterator<GenerationJob> jobs, Consumer<GenerationResult> listener)
+            throws InterruptedException {
+        List<GenerationResult> failures = new ArrayList<>();
+        BatchSummary summary = run(jobs, listener, true, failures);
+        return new VerificationReport(summary, failures);
+    }
+
+    private BatchSummary run(Iterator<GenerationJob> jobs, Consumer<GenerationResult> listener, boolean verify,
+                             List<GenerationResult> failures) throws InterruptedException {
+        BlockingQueue<GenerationResult> completed = new LinkedBlockingQueue<>();
+        long start = System.nanoTime();
+        boolean exhausted = false;
+        int inFlight = 0;
+        int total = 0;
+        int succeeded = 0;
+        long totalLatency = 0;
+
+        while (!exhausted || inFlight > 0) {
+            // Only pull more input once a slot frees up; this is the backpressure point
+            while (!exhausted && inFlight < maxInFlight) {
+                try {
+                    if (!jobs.hasNext()) {
+                        exhausted = true;
+                        break;
+                    }
+                    submit(jobs.next(), verify, completed);
+                } catch (IllegalArgumentException e) {
+                    // A malformed input row fails on its own; the jobs around it still run
+                    completed.add(new GenerationResult(null, null, e, 0, null));
+                }
+                inFlight++;
+            }
+            if (inFlight == 0) {
+                break;
+            }
+
+            GenerationResult result = completed.take();
+            inFlight--;
+            total++;
+            totalLatency += result.latencyNanos();
+            if (result.isSuccess()) {
+                succeeded++;
+            } else if (failures != null) {
+                failures.add(result);
+            }
+            if (listener != null) {
+                listener.accept(result);
+            }
+        }
+
+        return new BatchSummary(total, succeeded, total - succeeded, System.nanoTime() - start, totalLatency);
+    }
+
+    private void submit(GenerationJob job, boolean verify, BlockingQueue<GenerationResult> completed) {
+        long start = System.nanoTime();
+        // Set by the verify step; read after the write completes, which happens-after it
+        DecodeResult[] verification = new DecodeResult[1];
+        CompletableFuture
+                .supplyAsync(() -> {
+                    BitMatrix matrix = encode(job);
+                    if (verify) {
+                        // Same thread, matrix still in cache: the round trip costs a fraction of the encode
+                        verification[0] = verify(job, matrix);
+                    }
+                    return matrix;
+                }, encodeExecutor)
+                .thenApplyAsync(matrix -> compress(matrix, deflateLevel), compressExecutor)
+                .thenApplyAsync(png -> write(job.output(), png), writeExecutor)
+                .whenComplete((path, error) -> completed.add(new GenerationResult(
+                        job, path, error == null ? null : unwrap(error), System.nanoTime() - start,
+                        verification[0])));
+    }
+
+    private static DecodeResult verify(GenerationJob job, BitMatrix matrix) {
+        // A reader limited to the job's format that trusts the matrix is a clean, pure code
+        ICodeReader reader = CodeReaderFactory.createReader(
+                ReaderConfig.forFormats(job.format()).withPureBarcode(true));
+        DecodeResult decoded;
+        try {
+            decoded = reader.readMatrix(matrix);
+        } catch (NotFoundException e) {
+            throw new IllegalStateException("Generated code could not be decoded");
+        }
+        if (!matches(job, decoded.text())) {
+            throw new IllegalStateException("Decoded \"" + decoded.text() + "\" instead of the input");
+        }
+        return decoded;
+    }
+
+    /**
+     * Check decoded text against the input, allowing for a check digit the writer appended
+     */
+    private static boolean matches(GenerationJob job, String decoded) {
+        String data = job.data();
+        if (decoded.equals(data)) {
+            return true;
+        }
+        int fullLength = switch (job.format()) {
+            case EAN_13 -> 13;
+            case EAN_8, UPC_E -> 8;
+            case UPC_A -> 12;
+            default -> -1;
+        };
+        return data.length() == fullLength - 1 && decoded.length() == fullLength && decoded.startsWith(data);
+    }
+
+    private static BitMatrix encode(GenerationJob job) {
+        try {
+            ICodeGenerator generator = CodeGeneratorFactory.createGenerator(job.format());
+            return generator.generateMatrix(job.data(), job.width(), job.height());
+        } catch (WriterException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private static byte[] compress(BitMatrix matrix, int deflateLevel) {
+        // Timed as the image write; the file write on the I/O pool is left out so each code counts once
+        long start = Metrics.start();
+        byte[] png = BitMatrixPngWriter.toBytes(matrix, deflateLevel);
+        Metrics.stop(PipelineStage.IMAGE_WRITE, start);
+        return png;
+    }
+
+    private static Path write(Path output, byte[] png) {
+        try {
+            return Files.write(output, png).toAbsolutePath();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Exception unwrap(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof UncheckedIOException unchecked) {
+            return unchecked.getCause();
+        }
+        return cause instanceof Exception exception ? exception : new RuntimeException(cause);
+    }
+
+    /**
+     * Lazily read generation jobs from a CSV manifest
+     * Columns are {@code data,format,size,path}; a first line that is exactly that header is skipped
+     * Fields may be double-quoted to contain commas; format, size and path are trimmed, data is kept as is
+     * A malformed row is not skipped: reading it fails with an {@link IllegalArgumentException} naming
+     * its line, which the generation methods report as a failed result before carrying on
+     *
+     * @param csvFile   The manifest file
+     * @param outputDir Directory that relative output paths are resolved against
+     * @return A stream of jobs; must be closed by the caller
+     * @throws IOException If the file cannot be opened
+     */
+    public static Stream<GenerationJob> readCsv(Path csvFile, Path outputDir) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(csvFile);
+        Iterator<GenerationJob> rows = new Iterator<>() {
+            private int lineNumber;
+            private String line;
+
+            @Override
+            public boolean hasNext() {
+                try {
+                    while (line == null) {
+                        String read = reader.readLine();
+                        if (read == null) {
+                            return false;
+                        }
+                        lineNumber++;
+                        // Not stripped as a whole: whitespace around the data column is part of the data
+                        if (!read.isBlank() && !(lineNumber == 1 && read.strip().equalsIgnoreCase(CSV_HEADER))) {
+                            line = read;
+                        }
+                    }
+                    return true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public GenerationJob next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                String row = line;
+                // Consumed before parsing, so a bad row does not stop the rows after it
+                line = null;
+                try {
+                    return parseCsvLine(row, outputDir);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage(), e);
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED), false)
+                .onClose(() -> {
+                    try {
+                        reader.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    private static GenerationJob parseCsvLine(String line, Path outputDir) {
+        List<String> fields = splitCsv(line);
+        if (fields.size() != 4) {
+            throw new IllegalArgumentException("Expected 4 columns (" + CSV_HEADER + "), found " + fields.size());
+        }
+        CodeFormat format;
+        try {
+            format = CodeFormat.valueOf(fields.get(1).strip().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown format: " + fields.get(1).strip());
+        }
+        int size;
+        try {
+            size = Integer.parseInt(fields.get(2).strip());
+        } catch (NumberFormatException e) {
+            size = 0;
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size must be a positive integer: " + fields.get(2).strip());
+        }
+        String path = fields.get(3).strip();
+        if (path.isEmpty()) {
+            throw new IllegalArgumentException("Output path cannot be empty");
+        }
+        return new GenerationJob(fields.get(0), format, size, size, outputDir.resolve(path));
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static ExecutorService newPool(int threads, String name) {
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void close() {
+        for (ExecutorService executor : List.of(encodeExecutor, compressExecutor, writeExecutor)) {
+            executor.shutdownNow();
+        }
+        try {
+            for (ExecutorService executor : List.of(encodeExecutor, compressExecutor, writeExecutor)) {
+                executor.awaitTermination(5, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package service;
+
+import com.google.zxing.LuminanceSource;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Luminance source backed by an 8-bit grayscale plane in a {@link ByteBuffer}
+ * Samples are read straight from the buffer, so direct buffers need no intermediate image object
+ */
+public class ByteBufferLuminanceSource extends LuminanceSource {
+
+    private final ByteBuffer plane;
+    private final int base;
+    private final int stride;
+
+    /**
+     * Wrap a grayscale plane whose first row starts at the buffer's position
+     *
+     * @param plane  The grayscale samples
+     * @param width  Width of the image in pixels
+     * @param height Height of the image in pixels
+     * @param stride Number of bytes between the starts of consecutive rows
+     */
+    public ByteBufferLuminanceSource(ByteBuffer plane, int width, int height, int stride) {
+        this(plane, plane.position(), width, height, stride);
+        checkPlaneSize(plane.remaining(), width, height, stride);
+    }
+
+    private ByteBufferLuminanceSource(ByteBuffer plane, int base, int width, int height, int stride) {
+        super(width, height);
+        this.plane = plane;
+        this.base = base;
+        this.stride = stride;
+    }
+
+    /**
+     * Validate that a plane of the given size can hold an image of the given geometry
+     *
+     * @param available Number of bytes available from the first row on
+     * @param width     Width of the image in pixels
+     * @param height    Height of the image in pixels
+     * @param stride    Number of bytes between the starts of consecutive rows
+     * @throws IllegalArgumentException if the geometry does not fit
+     */
+    static void checkPlaneSize(int available, int width, int height, int stride) {
+        if (width < 1 || height < 1) {
+            throw new IllegalArgumentException("Width and height must be positive");
+        }
+        if (stride < width) {
+            throw new IllegalArgumentException("Stride cannot be smaller than width");
+        }
+        if ((long) (height - 1) * stride + width > available) {
+            throw new IllegalArgumentException("Luminance plane is too small for " + width + "x" + height
+                    + " with stride " + stride);
+        }
+    }
+
+    @Override
+    public byte[] getRow(int y, byte[] row) {
+        if (y < 0 || y >= getHeight()) {
+            throw new IllegalArgumentException("Requested row is outside the image: " + y);
+        }
+        int width = getWidth();
+        if (row == null || row.length < width) {
+            row = new byte[width];
+        }
+        plane.get(base + y * stride, row, 0, width);
+        return row;
+    }
+
+    @Override
+    public byte[] getMatrix() {
+        int width = getWidth();
+        int height = getHeight();
+        byte[] packed = packedArray();
+        if (packed != null) {
+            // The whole backing array is exactly the image, as ZXing's own planar source allows
+            return packed;
+        }
+        byte[] matrix = new byte[width * height];
+        if (stride == width) {
+            plane.get(base, matrix, 0, matrix.length);
+            return matrix;
+        }
+        for (int y = 0; y < height; y++) {
+            plane.get(base + y * stride, matrix, y * width, width);
+        }
+        return matrix;
+    }
+
+    /**
+     * Get the backing array if it holds exactly this image, row after row with no padding
+     *
+     * @return The array, or null if reading the image needs a copy
+     */
+    byte[] packedArray() {
+        int width = getWidth();
+        int height = getHeight();
+        if (stride == width && plane.hasArray() && plane.arrayOffset() + base == 0
+                && plane.array().length == width * height) {
+            return plane.array();
+        }
+        return null;
+    }
+
+    @Override
+    public boolean isCropSupported() {
+        return true;
+    }
+
+    @Override
+    public LuminanceSource crop(int left, int top, int width, int height) {
+        return new ByteBufferLuminanceSource(plane, base + top * stride + left, width, height, stride);
+    }
+
+    /**
+     * Rotation lets TRY_HARDER find 1D codes printed vertically
+     */
+    @Override
+    public boolean isRotateSupported() {
+        return true;
+    }
+
+    @Override
+    public LuminanceSource rotateCounterClockwise() {
+        int width = getWidth();
+        int height = getHeight();
+        byte[] rotated = new byte[width * height];
+        for (int y = 0; y < height; y++) {
+            int in = base + y * stride;
+            for (int x = 0; x < width; x++) {
+                rotated[(width - 1 - x) * height + y] = plane.get(in + x);
+            }
+        }
+        return new ByteBufferLuminanceSource(ByteBuffer.wrap(rotated), 0, height, width, height);
+    }
+}
@@ -0,0 +1,359 @@
+package service;
+
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import model.CacheStats;
+import model.CodeFormat;
+import model.VectorFormat;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Decorator that caches encoded PNG bytes for repeated (data, format, size, hints) requests
+ * Cache hits are served without touching ZXing or the PNG encoder
+ * Memory is bounded by total PNG size with least-recently-used eviction; evicted images can
+ * optionally spill to a local directory and are promoted back to memory on their next hit
+ * The spill directory is bounded too: once it holds too many bytes the oldest files are deleted
+ */
+public class CachingCodeGenerator implements ICodeGenerator {
+
+    private static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+    private static final long DEFAULT_MAX_SPILL_BYTES = 256L * 1024 * 1024;
+
+    private final ICodeGenerator delegate;
+    private final long maxBytes;
+    private final Path spillDirectory;
+    private final long maxSpillBytes;
+
+    private final LinkedHashMap<ImageKey, byte[]> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long weightBytes;
+
+    // Spill files oldest first with their sizes; guarded by its own lock so disk I/O never holds the cache lock
+    private final LinkedHashMap<Path, Long> spilled = new LinkedHashMap<>();
+    private long spillBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Wrap a generator with a 32 MB in-memory cache and no disk spill
+     *
+     * @param delegate The generator that performs the actual encoding
+     */
+    public CachingCodeGenerator(ICodeGenerator delegate) {
+        this(delegate, DEFAULT_MAX_BYTES, null);
+    }
+
+    /**
+     * Wrap a generator with explicit bounds and a 256 MB spill directory
+     *
+     * @param delegate       The generator that performs the actual encoding
+     * @param maxBytes       Maximum total size of PNG bytes kept in memory
+     * @param spillDirectory Directory for evicted images, or null to drop them
+     */
+    public CachingCodeGenerator(ICodeGenerator delegate, long maxBytes, Path spillDirectory) {
+        this(delegate, maxBytes, spillDirectory, DEFAULT_MAX_SPILL_BYTES);
+    }
+
+    /**
+     * Wrap a generator with explicit bounds
+     *
+     * @param delegate       The generator that performs the actual encoding
+     * @param maxBytes       Maximum total size of PNG bytes kept in memory
+     * @param spillDirectory Directory for evicted images, or null to drop them
+     * @param maxSpillBytes  Maximum total size of the spill files; the oldest are deleted beyond it
+     */
+    public CachingCodeGenerator(ICodeGenerator delegate, long maxBytes, Path spillDirectory, long maxSpillBytes) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Generator cannot be null");
+        }
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        if (maxSpillBytes < 1) {
+            throw new IllegalArgumentException("Spill size must be positive");
+        }
+        this.delegate = delegate;
+        this.maxBytes = maxBytes;
+        this.spillDirectory = spillDirectory;
+        this.maxSpillBytes = maxSpillBytes;
+        if (spillDirectory != null) {
+            try {
+                Files.createDirectories(spillDirectory);
+                indexSpillDirectory();
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot create spill directory: " + spillDirectory, e);
+            }
+        }
+    }
+
+    @Override
+    public Path generateCode(String data, String filePath, int width, int height)
+            throws WriterException, IOException {
+        Path path = Path.of(filePath);
+        Files.write(path, png(data, width, height));
+        return path.toAbsolutePath();
+    }
+
+    @Override
+    public byte[] generateBytes(String data, int width, int height) throws WriterException, IOException {
+        // Callers get their own copy so the cached image can never be modified
+        return png(data, width, height).clone();
+    }
+
+    @Override
+    public void generateCode(String data, OutputStream out, int width, int height)
+            throws WriterException, IOException {
+        out.write(png(data, width, height));
+        out.flush();
+    }
+
+    @Override
+    public void generateCode(String data, WritableByteChannel channel, int width, int height)
+            throws WriterException, IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(png(data, width, height));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Vector output is cheap to produce from a matrix and is not cached
+     */
+    @Override
+    public void generateVector(String data, VectorFormat vectorFormat, OutputStream out, int width, int height)
+            throws WriterException, IOException {
+        delegate.generateVector(data, vectorFormat, out, width, height);
+    }
+
+    @Override
+    public Path generateVectorCode(String data, String filePath, VectorFormat vectorFormat, int width, int height)
+            throws WriterException, IOException {
+        return delegate.generateVectorCode(data, filePath, vectorFormat, width, height);
+    }
+
+    /**
+     * Matrices are not cached; only encoded PNG output is
+     */
+    @Override
+    public BitMatrix generateMatrix(String data, int width, int height) throws WriterException {
+        return delegate.generateMatrix(data, width, height);
+    }
+
+    @Override
+    public BufferedImage generateImage(String data, int width, int height) throws WriterException {
+        return delegate.generateImage(data, width, height);
+    }
+
+    @Override
+    public CodeFormat getFormat() {
+        return delegate.getFormat();
+    }
+
+    @Override
+    public Map<EncodeHintType, ?> getEncodeHints() {
+        return delegate.getEncodeHints();
+    }
+
+    @Override
+    public boolean validateData(String data) {
+        return delegate.validateData(data);
+    }
+
+    /**
+     * Get a snapshot of the cache counters
+     * Spilled images served from disk count as hits
+     *
+     * @return The current statistics
+     */
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), entries.size(), weightBytes);
+    }
+
+    private byte[] png(String data, int width, int height) throws WriterException, IOException {
+        ImageKey key = new ImageKey(data, delegate.getFormat(), width, height, delegate.getEncodeHints());
+
+        byte[] cached;
+        synchronized (this) {
+            cached = entries.get(key);
+        }
+        if (cached == null && spillDirectory != null) {
+            cached = readSpilled(key);
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        byte[] png = delegate.generateBytes(data, width, height);
+        put(key, png);
+        return png;
+    }
+
+    private void put(ImageKey key, byte[] png) {
+        List<Map.Entry<ImageKey, byte[]>> evicted = new ArrayList<>();
+        synchronized (this) {
+            byte[] previous = entries.put(key, png);
+            if (previous != null) {
+                weightBytes -= previous.length;
+            }
+            weightBytes += png.length;
+
+            Iterator<Map.Entry<ImageKey, byte[]>> eldest = entries.entrySet().iterator();
+            while (weightBytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<ImageKey, byte[]> entry = Map.Entry.copyOf(eldest.next());
+                eldest.remove();
+                weightBytes -= entry.getValue().length;
+                evictions.increment();
+                evicted.add(entry);
+            }
+        }
+        // Disk writes happen outside the lock so other callers are not blocked on I/O
+        if (spillDirectory != null) {
+            for (Map.Entry<ImageKey, byte[]> entry : evicted) {
+                spill(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private byte[] readSpilled(ImageKey key) {
+        Path file = spillDirectory.resolve(key.fileName());
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            byte[] png = Files.readAllBytes(file);
+            put(key, png);
+            return png;
+        } catch (IOException e) {
+            // Missing or unreadable spill files are treated as a miss
+            return null;
+        }
+    }
+
+    private void spill(ImageKey key, byte[] png) {
+        if (png.length > maxSpillBytes) {
+            return;
+        }
+        Path file = spillDirectory.resolve(key.fileName());
+        synchronized (spilled) {
+            if (spilled.containsKey(file)) {
+                return;
+            }
+        }
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(spillDirectory, "spill", ".tmp");
+            Files.write(temp, png);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Spilling is best-effort; the image is simply regenerated on its next request
+            deleteQuietly(temp);
+            return;
+        }
+        recordSpill(file, png.length);
+    }
+
+    /**
+     * Account for a spill file and delete the oldest ones while the directory is over its bound
+     */
+    private void recordSpill(Path file, long size) {
+        List<Path> expired = new ArrayList<>();
+        synchronized (spilled) {
+            Long previous = spilled.put(file, size);
+            spillBytes += size - (previous == null ? 0 : previous);
+            Iterator<Map.Entry<Path, Long>> oldest = spilled.entrySet().iterator();
+            while (spillBytes > maxSpillBytes && oldest.hasNext()) {
+                Map.Entry<Path, Long> entry = oldest.next();
+                oldest.remove();
+                spillBytes -= entry.getValue();
+                expired.add(entry.getKey());
+            }
+        }
+        for (Path path : expired) {
+            deleteQuietly(path);
+        }
+    }
+
+    /**
+     * Pick up spill files left by an earlier run, oldest first, and remove abandoned temp files
+     */
+    private void indexSpillDirectory() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(spillDirectory)) {
+            files = listing.filter(Files::isRegularFile).toList();
+        }
+        List<Path> images = new ArrayList<>();
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            if (name.startsWith("spill") && name.endsWith(".tmp")) {
+                deleteQuietly(file);
+            } else if (name.endsWith(".png")) {
+                images.add(file);
+            }
+        }
+        images.sort(Comparator.comparing(CachingCodeGenerator::lastModified));
+        for (Path image : images) {
+            recordSpill(image, Files.size(image));
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Left for the next start to clean up
+        }
+    }
+
+    private record ImageKey(String data, CodeFormat format, int width, int height, Map<EncodeHintType, ?> hints) {
+
+        /**
+         * Stable file name derived from every key component
+         */
+        String fileName() {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                String canonical = format + "|" + width + "x" + height + "|" + new TreeMap<>(hints) + "|" + data;
+                return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8))) + ".png";
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is always available", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package service;
+
+import com.google.zxing.NotFoundException;
+import com.google.zxing.common.BitMatrix;
+import model.CacheStats;
+import model.CodeFormat;
+import model.DecodeResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32C;
+
+/**
+ * Decorator that caches decode results by the content of the image bytes
+ * Identical images submitted again are answered without decoding; entries are evicted
+ * least-recently-used once either the entry count or the estimated size bound is exceeded
+ * "No code found" outcomes are cached too, but only for a short time-to-live
+ */
+public class CachingCodeReader implements ICodeReader {
+
+    private static final int DEFAULT_MAX_ENTRIES = 10_000;
+    private static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+    private static final Duration DEFAULT_NEGATIVE_TTL = Duration.ofSeconds(30);
+
+    // Rough per-entry bookkeeping cost: key, entry, map node and result object
+    private static final int ENTRY_OVERHEAD = 160;
+
+    private final ICodeReader delegate;
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long negativeTtlNanos;
+
+    private final LinkedHashMap<ContentKey, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long weightBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Wrap a reader with default bounds (10,000 entries, 16 MB, 30 s negative TTL)
+     *
+     * @param delegate The reader that performs the actual decoding
+     */
+    public CachingCodeReader(ICodeReader delegate) {
+        this(delegate, DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES, DEFAULT_NEGATIVE_TTL);
+    }
+
+    /**
+     * Wrap a reader with explicit bounds
+     *
+     * @param delegate    The reader that performs the actual decoding
+     * @param maxEntries  Maximum number of cached results
+     * @param maxBytes    Maximum estimated memory held by cached results
+     * @param negativeTtl How long a "no code found" outcome is remembered
+     */
+    public CachingCodeReader(ICodeReader delegate, int maxEntries, long maxBytes, Duration negativeTtl) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Reader cannot be null");
+        }
+        if (maxEntries < 1 || maxBytes < 1) {
+            throw new IllegalArgumentException("Cache bounds must be positive");
+        }
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.negativeTtlNanos = negativeTtl.toNanos();
+    }
+
+    @Override
+    public String readCode(String filePath) throws IOException, NotFoundException {
+        return readResult(filePath).text();
+    }
+
+    @Override
+    public DecodeResult readResult(String filePath) throws IOException, NotFoundException {
+        // Read the file once; the same bytes are hashed and, on a miss, decoded
+        return readResult(Files.readAllBytes(Path.of(filePath)));
+    }
+
+    @Override
+    public DecodeResult readResult(byte[] imageData) throws IOException, NotFoundException {
+        ContentKey key = ContentKey.of(ByteBuffer.wrap(imageData));
+        DecodeResult cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            return store(key, delegate.readResult(imageData));
+        } catch (NotFoundException e) {
+            storeNegative(key);
+            throw e;
+        }
+    }
+
+    @Override
+    public DecodeResult readResult(ByteBuffer imageData) throws IOException, NotFoundException {
+        ContentKey key = ContentKey.of(imageData.duplicate());
+        DecodeResult cached = lookup(key);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            return store(key, delegate.readResult(imageData));
+        } catch (NotFoundException e) {
+            storeNegative(key);
+            throw e;
+        }
+    }
+
+    @Override
+    public DecodeResult readResult(InputStream imageStream) throws IOException, NotFoundException {
+        return readResult(imageStream.readAllBytes());
+    }
+
+    /**
+     * Raw planes are passed straight through: live frames rarely repeat byte-for-byte,
+     * so hashing them would only add cost
+     */
+    @Override
+    public DecodeResult readLuminance(byte[] luminance, int width, int height, int stride)
+            throws NotFoundException {
+        return delegate.readLuminance(luminance, width, height, stride);
+    }
+
+    @Override
+    public DecodeResult readLuminance(ByteBuffer luminance, int width, int height, int stride)
+            throws NotFoundException {
+        return delegate.readLuminance(luminance, width, height, stride);
+    }
+
+    @Override
+    public DecodeResult readMatrix(BitMatrix matrix) throws NotFoundException {
+        return delegate.readMatrix(matrix);
+    }
+
+    /**
+     * Multi-code results are not cached; they are requested for one-off photos
+     */
+    @Override
+    public List<DecodeResult> readMultiple(String filePath) throws IOException, NotFoundException {
+        return delegate.readMultiple(filePath);
+    }
+
+    @Override
+    public List<DecodeResult> readMultiple(byte[] imageData) throws IOException, NotFoundException {
+        return delegate.readMultiple(imageData);
+    }
+
+    @Override
+    public CodeFormat getFormat() {
+        return delegate.getFormat();
+    }
+
+    /**
+     * Get a snapshot of the cache counters
+     *
+     * @return The current statistics
+     */
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), entries.size(), weightBytes);
+    }
+
+    /**
+     * Remove every cached result; counters are kept
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weightBytes = 0;
+    }
+
+    private DecodeResult lookup(ContentKey key) throws NotFoundException {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null && entry.isExpired(System.nanoTime())) {
+                remove(key, entry);
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        if (entry.result == null) {
+            throw NotFoundException.getNotFoundInstance();
+        }
+        return entry.result;
+    }
+
+    private DecodeResult store(ContentKey key, DecodeResult result) {
+        put(key, new Entry(result, Long.MAX_VALUE, weigh(result)));
+        return result;
+    }
+
+    private void storeNegative(ContentKey key) {
+        if (negativeTtlNanos > 0) {
+            put(key, new Entry(null, System.nanoTime() + negativeTtlNanos, ENTRY_OVERHEAD));
+        }
+    }
+
+    private synchronized void put(ContentKey key, Entry entry) {
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            weightBytes -= previous.weight;
+        }
+        weightBytes += entry.weight;
+
+        Iterator<Map.Entry<ContentKey, Entry>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || weightBytes > maxBytes) && eldest.hasNext()) {
+            Entry evicted = eldest.next().getValue();
+            eldest.remove();
+            weightBytes -= evicted.weight;
+            evictions.increment();
+        }
+    }
+
+    private void remove(ContentKey key, Entry entry) {
+        entries.remove(key);
+        weightBytes -= entry.weight;
+    }
+
+    private static int weigh(DecodeResult result) {
+        int weight = ENTRY_OVERHEAD + result.text().length() * 2;
+        if (result.rawBytes() != null) {
+            weight += result.rawBytes().length;
+        }
+        return weight + result.resultPoints().length * 24;
+    }
+
+    private static final class Entry {
+        final DecodeResult result;
+        final long expiresAt;
+        final int weight;
+
+        Entry(DecodeResult result, long expiresAt, int weight) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+            this.weight = weight;
+        }
+
+        boolean isExpired(long now) {
+            return expiresAt != Long.MAX_VALUE && now - expiresAt > 0;
+        }
+    }
+
+    /**
+     * 96-bit content fingerprint plus length
+     * CRC32C is hardware-accelerated; the second hash mixes 8 bytes per step and is independent of it
+     */
+    private record ContentKey(int length, int crc, long hash) {
+
+        static ContentKey of(ByteBuffer data) {
+            int length = data.remaining();
+            CRC32C crc32c = new CRC32C();
+            crc32c.update(data.duplicate());
+
+            ByteBuffer words = data.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            long hash = 0x9E3779B97F4A7C15L ^ length;
+            while (words.remaining() >= Long.BYTES) {
+                hash = mix(hash ^ words.getLong());
+            }
+            while (words.hasRemaining()) {
+                hash = mix(hash ^ (words.get() & 0xFF));
+            }
+            return new ContentKey(length, (int) crc32c.getValue(), hash);
+        }
+
+        private static long mix(long value) {
+            value *= 0xBF58476D1CE4E5B9L;
+            value ^= value >>> 31;
+            return value * 0x94D049BB133111EBL;
+        }
+    }
+}
@@ -0,0 +1,407 @@
+package service;
+
+import com.google.zxing.NotFoundException;
+import com.google.zxing.WriterException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import factory.CodeGeneratorFactory;
+import factory.CodeReaderFactory;
+import model.CodeFormat;
+import model.DecodeResult;
+import model.ReaderConfig;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decode/encode HTTP service on the JDK's built-in server
+ * Each request is handled on its own virtual thread, which only does I/O; the ZXing work runs on
+ * a fixed pool of platform threads sized to the CPUs, behind a bounded queue
+ * When that queue is full the request is answered 503 at once rather than left waiting; an upload
+ * is turned away before its body is read, so rejected requests cost no buffer space
+ *
+ * <ul>
+ *   <li>{@code POST /decode[?format=F]} - image bytes in the body, JSON result out</li>
+ *   <li>{@code GET /encode?data=D[&format=F][&size=N]} - PNG image out</li>
+ *   <li>{@code GET /health} - JSON load counters</li>
+ * </ul>
+ */
+public class CodeHttpService implements AutoCloseable {
+
+    public static final int DEFAULT_MAX_BODY_BYTES = 10 * 1024 * 1024;
+    public static final int DEFAULT_MAX_PIXELS = 25_000_000;
+
+    private static final int DEFAULT_SIZE = 300;
+    private static final int MIN_SIZE = 50;
+    private static final int MAX_SIZE = 2000;
+    private static final int MAX_DATA_LENGTH = 4096;
+
+    static {
+        // The JDK server writes headers and body separately; without TCP_NODELAY a response can
+        // stall on the client's delayed ACK for ~40 ms. Read once, when the server classes load
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService requestExecutor;
+    private final ThreadPoolExecutor cpuExecutor;
+    // One permit per CPU thread and queue slot, taken before a body is buffered
+    private final Semaphore admission;
+    private final int maxBodyBytes;
+    private final int maxPixels;
+
+    private final LongAdder handled = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Create a service on a port with one CPU worker per processor, a queue of four requests
+     * per worker, the default 10 MB body limit and the default 25 megapixel image limit
+     *
+     * @param port The TCP port; 0 picks a free one
+     * @throws IOException If the port cannot be bound
+     */
+    public CodeHttpService(int port) throws IOException {
+        this(new InetSocketAddress(port), Runtime.getRuntime().availableProcessors(),
+                Runtime.getRuntime().availableProcessors() * 4, DEFAULT_MAX_BODY_BYTES);
+    }
+
+    /**
+     * Create a service
+     *
+     * @param address       Where to listen
+     * @param cpuThreads    Threads doing the decode and encode work
+     * @param queueCapacity Requests allowed to wait for a CPU thread before 503 is returned
+     * @param maxBodyBytes  Largest accepted upload; larger bodies get 413
+     * @throws IOException If the address cannot be bound
+     */
+    public CodeHttpService(InetSocketAddress address, int cpuThreads, int queueCapacity, int maxBodyBytes)
+            throws IOException {
+        this(address, cpuThreads, queueCapacity, maxBodyBytes, DEFAULT_MAX_PIXELS);
+    }
+
+    /**
+     * Create a service
+     * A small compressed upload can still decode to a huge image, so the pixel count is checked
+     * from the image header before any pixels are decoded
+     *
+     * @param address       Where to listen
+     * @param cpuThreads    Threads doing the decode and encode work
+     * @param queueCapacity Requests allowed to wait for a CPU thread before 503 is returned
+     * @param maxBodyBytes  Largest accepted upload; larger bodies get 413
+     * @param maxPixels     Largest accepted image width times height; larger images get 413
+     * @throws IOException If the address cannot be bound
+     */
+    public CodeHttpService(InetSocketAddress address, int cpuThreads, int queueCapacity, int maxBodyBytes,
+                           int maxPixels) throws IOException {
+        if (cpuThreads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be at least 1");
+        }
+        if (maxBodyBytes < 1) {
+            throw new IllegalArgumentException("Body limit must be positive");
+        }
+        if (maxPixels < 1) {
+            throw new IllegalArgumentException("Pixel limit must be positive");
+        }
+        this.maxBodyBytes = maxBodyBytes;
+        this.maxPixels = maxPixels;
+        this.cpuExecutor = new ThreadPoolExecutor(cpuThreads, cpuThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "http-cpu");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.admission = new Semaphore(cpuThreads + queueCapacity);
+        this.requestExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+        this.server = HttpServer.create(address, 0);
+        server.setExecutor(requestExecutor);
+        server.createContext("/decode", exchange -> handle(exchange, "POST", this::decode));
+        server.createContext("/encode", exchange -> handle(exchange, "GET", this::encode));
+        server.createContext("/health", exchange -> handle(exchange, "GET", this::health));
+    }
+
+    /**
+     * Start accepting requests
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Get the port the service listens on, useful when it was created with port 0
+     *
+     * @return The bound port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private interface Handler {
+        void handle(HttpExchange exchange) throws Exception;
+    }
+
+    private void handle(HttpExchange exchange, String method, Handler handler) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals(method)) {
+                exchange.getResponseHeaders().set("Allow", method);
+                sendError(exchange, 405, "Use " + method);
+                return;
+            }
+            handler.handle(exchange);
+            handled.increment();
+        } catch (IllegalArgumentException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (Overloaded e) {
+            // 503 already sent
+        } catch (IOException e) {
+            // The client went away; nothing can be sent
+            throw e;
+        } catch (Exception e) {
+            sendError(exchange, 500, "Internal error");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void decode(HttpExchange exchange) throws Exception {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        ReaderConfig config = query.containsKey("format")
+                ? ReaderConfig.forFormats(parseFormat(query.get("format")))
+                : ReaderConfig.allFormats();
+
+        String declaredLength = exchange.getRequestHeaders().getFirst("Content-Length");
+        if (declaredLength != null && Long.parseLong(declaredLength) > maxBodyBytes) {
+            sendError(exchange, 413, "Body exceeds " + maxBodyBytes + " bytes");
+            return;
+        }
+        DecodeResult result;
+        admit(exchange);
+        try {
+            byte[] body = readBody(exchange.getRequestBody());
+            if (body == null) {
+                sendError(exchange, 413, "Body exceeds " + maxBodyBytes + " bytes");
+                return;
+            }
+            if (body.length == 0) {
+                sendError(exchange, 400, "Request body must contain an image");
+                return;
+            }
+
+            long pixels;
+            try {
+                pixels = ImageLoader.pixelCount(ByteBuffer.wrap(body));
+            } catch (IOException e) {
+                sendError(exchange, 400, "Not a readable image");
+                return;
+            }
+            if (pixels > maxPixels) {
+                sendError(exchange, 413, "Image exceeds " + maxPixels + " pixels");
+                return;
+            }
+
+            ICodeReader reader = CodeReaderFactory.createReader(config);
+            try {
+                result = compute(exchange, () -> reader.readResult(body));
+            } catch (NotFoundException e) {
+                sendError(exchange, 422, "No code found");
+                return;
+            } catch (IOException e) {
+                sendError(exchange, 400, "Not a readable image");
+                return;
+            }
+        } finally {
+            admission.release();
+        }
+
+        StringBuilder json = new StringBuilder(128).append("{\"ok\":true,\"format\":");
+        Json.appendString(json, String.valueOf(result.barcodeFormat()));
+        json.append(",\"text\":");
+        Json.appendString(json, result.text());
+        json.append(",\"stage\":");
+        Json.appendString(json, result.stage().name());
+        json.append(",\"ms\":").append(String.format(Locale.ROOT, "%.2f", result.elapsedMillis())).append('}');
+        sendJson(exchange, 200, json.toString());
+    }
+
+    private void encode(HttpExchange exchange) throws Exception {
+        Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+        String data = query.get("data");
+        if (data == null || data.isEmpty()) {
+            throw new IllegalArgumentException("Missing data parameter");
+        }
+        if (data.length() > MAX_DATA_LENGTH) {
+            throw new IllegalArgumentException("Data exceeds " + MAX_DATA_LENGTH + " characters");
+        }
+        CodeFormat format = query.containsKey("format") ? parseFormat(query.get("format")) : CodeFormat.QR_CODE;
+        int size = query.containsKey("size") ? parseSize(query.get("size")) : DEFAULT_SIZE;
+
+        ICodeGenerator generator = CodeGeneratorFactory.createGenerator(format);
+        byte[] png;
+        admit(exchange);
+        try {
+            png = compute(exchange, () -> generator.generateBytes(data, size, size));
+        } catch (WriterException e) {
+            sendError(exchange, 400, "Unable to encode: " + e.getMessage());
+            return;
+        } finally {
+            admission.release();
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", "image/png");
+        exchange.sendResponseHeaders(200, png.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(png);
+        }
+    }
+
+    private void health(HttpExchange exchange) throws IOException {
+        sendJson(exchange, 200, "{\"status\":\"ok\",\"active\":" + cpuExecutor.getActiveCount()
+                + ",\"queued\":" + cpuExecutor.getQueue().size()
+                + ",\"handled\":" + handled.sum()
+                + ",\"rejected\":" + rejected.sum() + "}");
+    }
+
+    /**
+     * Take a CPU slot for the request, before any body is read; pair with a release
+     * If every thread and queue slot is taken, 503 is sent and {@link Overloaded} is thrown
+     */
+    private void admit(HttpExchange exchange) throws IOException, Overloaded {
+        if (!admission.tryAcquire()) {
+            // The body is left unread; the server closes the connection rather than drain a large one
+            throw overloaded(exchange);
+        }
+    }
+
+    /**
+     * Run CPU work on the bounded pool and wait for it on the request's virtual thread
+     * Admitted requests always fit; a full queue still gets 503 and {@link Overloaded}
+     */
+    private <T> T compute(HttpExchange exchange, Callable<T> work) throws Exception {
+        Future<T> future;
+        try {
+            future = cpuExecutor.submit(work);
+        } catch (RejectedExecutionException e) {
+            throw overloaded(exchange);
+        }
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Worker failed", e.getCause());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a worker", e);
+        }
+    }
+
+    private Overloaded overloaded(HttpExchange exchange) throws IOException {
+        rejected.increment();
+        exchange.getResponseHeaders().set("Retry-After", "1");
+        sendError(exchange, 503, "Server busy");
+        return new Overloaded();
+    }
+
+    /**
+     * Read at most the body limit; null if the body is larger
+     */
+    private byte[] readBody(InputStream in) throws IOException {
+        byte[] body = in.readNBytes(maxBodyBytes + 1);
+        return body.length > maxBodyBytes ? null : body;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8),
+                    URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static CodeFormat parseFormat(String value) {
+        try {
+            return CodeFormat.valueOf(value.toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown format: " + value);
+        }
+    }
+
+    private static int parseSize(String value) {
+        try {
+            int size = Integer.parseInt(value);
+            if (size >= MIN_SIZE && size <= MAX_SIZE) {
+                return size;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Size must be between " + MIN_SIZE + " and " + MAX_SIZE);
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        StringBuilder json = new StringBuilder("{\"ok\":false,\"error\":");
+        Json.appendString(json, message);
+        sendJson(exchange, status, json.append('}').toString());
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Signals that a 503 has already been sent
+     */
+    private static final class Overloaded extends Exception {
+        Overloaded() {
+            super(null, null, false, false);
+        }
+    }
+
+    /**
+     * Stop accepting requests, give in-flight ones a second to finish, and release the pools
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        cpuExecutor.shutdownNow();
+        requestExecutor.shutdown();
+    }
+}
@@ -0,0 +1,247 @@
+package service;
+
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.common.BitMatrix;
+
+/**
+ * Scratch buffers for one thread's decodes
+ * Luminance copies, downscaled planes, black points and black matrices are kept per image size
+ * and handed to the next image of that size, so a steady stream of same-sized frames allocates
+ * almost nothing for thresholding
+ * Buffers are only borrowed for the length of one decode; nothing that outlives it, such as a
+ * result, may refer to them
+ */
+final class DecodeContext {
+
+    // Full resolution and two downscaled sizes per decode
+    private static final int SLOTS = 3;
+
+    // Pixels of all sizes kept per thread, about 10 MB of buffers. Images up to 1080p are never
+    // downscaled; a 1440p frame fits with its 1024 px plane and a 4K frame fits alone; a 16 MP or
+    // 24 MP photo is too large itself but keeps both of its downscaled planes. Whatever does not
+    // fit beside the buffers the current decode already holds gets buffers that are dropped
+    // afterwards, so the passes of one decode never evict each other and long-lived pools do not
+    // each pin a large image's worth of memory
+    private static final long MAX_RETAINED_PIXELS = 8L * 1024 * 1024;
+
+    private static final ThreadLocal<DecodeContext> CONTEXTS = ThreadLocal.withInitial(DecodeContext::new);
+
+    private final Buffers[] slots = new Buffers[SLOTS];
+    private long uses;
+    private long decodeStart;
+    private boolean busy;
+    private byte[] row = new byte[0];
+    private int[] sums = new int[0];
+
+    private DecodeContext() {
+    }
+
+    /**
+     * Borrow the calling thread's context; pair with {@link #release}
+     * A decode nested inside another on the same thread gets a private context instead
+     *
+     * @return The context
+     */
+    static DecodeContext acquire() {
+        DecodeContext context = CONTEXTS.get();
+        if (context.busy) {
+            return new DecodeContext();
+        }
+        context.busy = true;
+        context.decodeStart = context.uses;
+        return context;
+    }
+
+    /**
+     * Hand the context back once the decode's buffers are no longer used
+     */
+    void release() {
+        busy = false;
+    }
+
+    /**
+     * Get the buffers for one image size, evicting the least recently used sizes that the
+     * current decode has not touched to stay within the retention budget
+     *
+     * @param width  Image width
+     * @param height Image height
+     * @return The buffers
+     */
+    Buffers buffers(int width, int height) {
+        long pixels = (long) width * height;
+        if (pixels > MAX_RETAINED_PIXELS) {
+            return new Buffers(width, height);
+        }
+        long retained = 0;
+        for (Buffers slot : slots) {
+            if (slot == null) {
+                continue;
+            }
+            if (slot.width == width && slot.height == height) {
+                slot.lastUse = ++uses;
+                return slot;
+            }
+            retained += slot.pixels();
+        }
+
+        Buffers created = new Buffers(width, height);
+        int free = freeSlot();
+        while (free < 0 || retained + pixels > MAX_RETAINED_PIXELS) {
+            int oldest = oldestSlot();
+            if (oldest < 0) {
+                // Everything kept is in use by this decode, and stays for the next one
+                return created;
+            }
+            retained -= slots[oldest].pixels();
+            slots[oldest] = null;
+            free = oldest;
+        }
+        created.lastUse = ++uses;
+        slots[free] = created;
+        return created;
+    }
+
+    private int freeSlot() {
+        for (int i = 0; i < SLOTS; i++) {
+            if (slots[i] == null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int oldestSlot() {
+        int oldest = -1;
+        for (int i = 0; i < SLOTS; i++) {
+            if (slots[i] != null && slots[i].lastUse <= decodeStart
+                    && (oldest < 0 || slots[i].lastUse < slots[oldest].lastUse)) {
+                oldest = i;
+            }
+        }
+        return oldest;
+    }
+
+    /**
+     * Get a source's samples as one packed array, copying them into the buffers for its size
+     * unless the source already is such an array
+     *
+     * @param source The source
+     * @return Samples row after row; read-only
+     */
+    byte[] packedLuminance(LuminanceSource source) {
+        if (source instanceof ByteBufferLuminanceSource bufferSource) {
+            byte[] packed = bufferSource.packedArray();
+            if (packed != null) {
+                return packed;
+            }
+        }
+        int width = source.getWidth();
+        int height = source.getHeight();
+        byte[] luminance = buffers(width, height).luminance();
+        byte[] line = row(width);
+        for (int y = 0; y < height; y++) {
+            line = source.getRow(y, line);
+            System.arraycopy(line, 0, luminance, y * width, width);
+        }
+        return luminance;
+    }
+
+    /**
+     * Get a row buffer of at least the given length; its contents are undefined
+     */
+    byte[] row(int length) {
+        if (row.length < length) {
+            row = new byte[length];
+        }
+        return row;
+    }
+
+    /**
+     * Get a sum buffer of at least the given length; its contents are undefined
+     */
+    int[] sums(int length) {
+        if (sums.length < length) {
+            sums = new int[length];
+        }
+        return sums;
+    }
+
+    /**
+     * Reusable arrays for images of one size, each allocated on first use
+     */
+    static final class Buffers {
+
+        final int width;
+        final int height;
+        private long lastUse;
+        private byte[] plane;
+        private byte[] luminance;
+        private int[] blackPoints;
+        private BitMatrix matrix;
+        private BitMatrix histogramMatrix;
+
+        private Buffers(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        private long pixels() {
+            return (long) width * height;
+        }
+
+        /**
+         * Plane that a downscaled image of this size is written to
+         */
+        byte[] plane() {
+            if (plane == null) {
+                plane = new byte[width * height];
+            }
+            return plane;
+        }
+
+        /**
+         * Packed array that a source of this size is copied into; its contents are undefined
+         */
+        byte[] luminance() {
+            if (luminance == null) {
+                luminance = new byte[width * height];
+            }
+            return luminance;
+        }
+
+        /**
+         * Array for one black point per block; its contents are undefined
+         */
+        int[] blackPoints(int count) {
+            if (blackPoints == null || blackPoints.length < count) {
+                blackPoints = new int[count];
+            }
+            return blackPoints;
+        }
+
+        /**
+         * Black matrix of this size for local thresholding, with every bit cleared
+         */
+        BitMatrix matrix() {
+            if (matrix == null) {
+                matrix = new BitMatrix(width, height);
+            } else {
+                matrix.clear();
+            }
+            return matrix;
+        }
+
+        /**
+         * Black matrix of this size for global thresholding, with every bit cleared
+         * Kept apart from {@link #matrix} because one decode may threshold the same image both ways
+         */
+        BitMatrix histogramMatrix() {
+            if (histogramMatrix == null) {
+                histogramMatrix = new BitMatrix(width, height);
+            } else {
+                histogramMatrix.clear();
+            }
+            return histogramMatrix;
+        }
+    }
+}
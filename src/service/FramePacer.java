@@ -0,0 +1,46 @@
+package service;
+
+import java.io.InterruptedIOException;
+
+/**
+ * Releases frames no faster than a target rate, so recorded sources behave like a live camera
+ */
+final class FramePacer {
+
+    private final long intervalNanos;
+    private long start = -1;
+
+    /**
+     * @param fps Target frames per second, or 0 to deliver frames as fast as they can be read
+     */
+    FramePacer(double fps) {
+        if (fps < 0) {
+            throw new IllegalArgumentException("Frame rate cannot be negative");
+        }
+        this.intervalNanos = fps == 0 ? 0 : (long) (1_000_000_000L / fps);
+    }
+
+    /**
+     * Wait until the given frame is due
+     *
+     * @param sequence Position of the frame in its source
+     */
+    void await(long sequence) throws InterruptedIOException {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        if (start < 0) {
+            start = now;
+        }
+        long wait = start + sequence * intervalNanos - now;
+        if (wait > 0) {
+            try {
+                Thread.sleep(wait / 1_000_000, (int) (wait % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while pacing frames");
+            }
+        }
+    }
+}
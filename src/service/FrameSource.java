@@ -0,0 +1,36 @@
+package service;
+
+import model.Frame;
+
+import java.io.IOException;
+
+/**
+ * A stream of frames for live scanning, such as a camera, a video file or a directory of stills
+ * Follows the Strategy pattern: {@link LiveScanPipeline} works with any source
+ */
+public interface FrameSource extends AutoCloseable {
+
+    /**
+     * Capture the next frame, blocking until it is available
+     * Called from a single producer thread
+     *
+     * A frame that is corrupt is skipped and counted rather than thrown, so one bad frame does not
+     * end the stream
+     *
+     * @return The frame, or null when the source has no more frames
+     * @throws IOException If the source itself cannot be read
+     */
+    Frame next() throws IOException;
+
+    /**
+     * Get the number of frames skipped so far because they could not be decoded
+     *
+     * @return The count
+     */
+    default long corruptFrames() {
+        return 0;
+    }
+
+    @Override
+    void close() throws IOException;
+}
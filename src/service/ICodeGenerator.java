@@ -1,10 +1,17 @@
 package service;
 
+import com.google.zxing.EncodeHintType;
 import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
 import model.CodeFormat;
+import model.VectorFormat;
 
+import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Path;
+import java.util.Map;
 
 /**
  * Interface for code generation operations
@@ -26,6 +33,101 @@ public interface ICodeGenerator {
     Path generateCode(String data, String filePath, int width, int height) 
             throws WriterException, IOException;
     
+    /**
+     * Validate and encode data into a bit matrix without writing any image
+     * 
+     * @param data   The data to encode
+     * @param width  Width of the matrix
+     * @param height Height of the matrix
+     * @return The encoded BitMatrix
+     * @throws WriterException          If encoding fails
+     * @throws IllegalArgumentException If the data is invalid for this format
+     */
+    BitMatrix generateMatrix(String data, int width, int height) throws WriterException;
+    
+    /**
+     * Generate a code as an in-memory image
+     * 
+     * @param data   The data to encode
+     * @param width  Width of the image
+     * @param height Height of the image
+     * @return The rendered image
+     * @throws WriterException If encoding fails
+     */
+    BufferedImage generateImage(String data, int width, int height) throws WriterException;
+    
+    /**
+     * Generate a code as PNG bytes without touching the filesystem
+     * 
+     * @param data   The data to encode
+     * @param width  Width of the image
+     * @param height Height of the image
+     * @return The PNG file contents
+     * @throws WriterException If encoding fails
+     * @throws IOException     If PNG encoding fails
+     */
+    byte[] generateBytes(String data, int width, int height) throws WriterException, IOException;
+    
+    /**
+     * Generate a code and write it as PNG to a stream
+     * The stream is flushed but not closed
+     * 
+     * @param data   The data to encode
+     * @param out    The stream to write to
+     * @param width  Width of the image
+     * @param height Height of the image
+     * @throws WriterException If encoding fails
+     * @throws IOException     If writing fails
+     */
+    void generateCode(String data, OutputStream out, int width, int height)
+            throws WriterException, IOException;
+    
+    /**
+     * Generate a code and write it as PNG to a channel
+     * The channel is not closed
+     * 
+     * @param data    The data to encode
+     * @param channel The channel to write to
+     * @param width   Width of the image
+     * @param height  Height of the image
+     * @throws WriterException If encoding fails
+     * @throws IOException     If writing fails
+     */
+    void generateCode(String data, WritableByteChannel channel, int width, int height)
+            throws WriterException, IOException;
+    
+    /**
+     * Generate a code as a vector document and write it to a stream
+     * Dark modules are emitted as merged rectangles, so the result scales to any print size;
+     * width and height only set the document's nominal size and aspect ratio
+     * The stream is flushed but not closed
+     * 
+     * @param data         The data to encode
+     * @param vectorFormat SVG, PDF or EPS
+     * @param out          The stream to write to
+     * @param width        Nominal width of the document
+     * @param height       Nominal height of the document
+     * @throws WriterException If encoding fails
+     * @throws IOException     If writing fails
+     */
+    void generateVector(String data, VectorFormat vectorFormat, OutputStream out, int width, int height)
+            throws WriterException, IOException;
+    
+    /**
+     * Generate a code as a vector document and save it to a file
+     * 
+     * @param data         The data to encode
+     * @param filePath     The output file path
+     * @param vectorFormat SVG, PDF or EPS
+     * @param width        Nominal width of the document
+     * @param height       Nominal height of the document
+     * @return The absolute path to the generated file
+     * @throws WriterException If encoding fails
+     * @throws IOException     If file writing fails
+     */
+    Path generateVectorCode(String data, String filePath, VectorFormat vectorFormat, int width, int height)
+            throws WriterException, IOException;
+    
     /**
      * Get the format this generator supports
      * 
@@ -33,6 +135,13 @@ public interface ICodeGenerator {
      */
     CodeFormat getFormat();
     
+    /**
+     * Get the ZXing hints (margin, error correction, ...) applied to every encode
+     * 
+     * @return Unmodifiable hint map, empty when defaults are used
+     */
+    Map<EncodeHintType, ?> getEncodeHints();
+    
     /**
      * Validate if the data is suitable for this code format
      * 
@@ -1,9 +1,14 @@
 package service;
 
 import com.google.zxing.NotFoundException;
+import com.google.zxing.common.BitMatrix;
 import model.CodeFormat;
+import model.DecodeResult;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
 
 /**
  * Interface for code reading operations
@@ -21,6 +26,107 @@ public interface ICodeReader {
      */
     String readCode(String filePath) throws IOException, NotFoundException;
     
+    /**
+     * Read and decode a code from an image file, keeping all result metadata
+     * The image is loaded and decoded exactly once
+     * 
+     * @param filePath Path to the image file
+     * @return The decode result with text, format, points and timing
+     * @throws IOException       If file reading fails
+     * @throws NotFoundException If no code is found
+     */
+    DecodeResult readResult(String filePath) throws IOException, NotFoundException;
+    
+    /**
+     * Decode a code from encoded image bytes (PNG, JPEG, ...) held in memory
+     * 
+     * @param imageData The encoded image file contents
+     * @return The decode result
+     * @throws IOException       If the bytes are not a readable image
+     * @throws NotFoundException If no code is found
+     */
+    DecodeResult readResult(byte[] imageData) throws IOException, NotFoundException;
+    
+    /**
+     * Decode a code from encoded image bytes in a buffer
+     * Reads from the buffer's position to its limit without changing either
+     * 
+     * @param imageData The encoded image file contents; heap or direct
+     * @return The decode result
+     * @throws IOException       If the bytes are not a readable image
+     * @throws NotFoundException If no code is found
+     */
+    DecodeResult readResult(ByteBuffer imageData) throws IOException, NotFoundException;
+    
+    /**
+     * Decode a code from an encoded image stream
+     * The stream is read to the end but not closed
+     * 
+     * @param imageStream The encoded image stream
+     * @return The decode result
+     * @throws IOException       If the stream is not a readable image
+     * @throws NotFoundException If no code is found
+     */
+    DecodeResult readResult(InputStream imageStream) throws IOException, NotFoundException;
+    
+    /**
+     * Decode a code from a raw 8-bit grayscale plane, such as the Y plane of a camera frame
+     * No image object is created; the plane is read in place
+     * 
+     * @param luminance Grayscale samples, one byte per pixel
+     * @param width     Width of the image in pixels
+     * @param height    Height of the image in pixels
+     * @param stride    Number of bytes between the starts of consecutive rows
+     * @return The decode result
+     * @throws NotFoundException If no code is found
+     */
+    DecodeResult readLuminance(byte[] luminance, int width, int height, int stride) throws NotFoundException;
+    
+    /**
+     * Decode a code from a raw 8-bit grayscale plane held in a buffer
+     * Row 0 starts at the buffer's position; direct buffers are read in place without an image object
+     * 
+     * @param luminance Grayscale samples, one byte per pixel
+     * @param width     Width of the image in pixels
+     * @param height    Height of the image in pixels
+     * @param stride    Number of bytes between the starts of consecutive rows
+     * @return The decode result
+     * @throws NotFoundException If no code is found
+     */
+    DecodeResult readLuminance(ByteBuffer luminance, int width, int height, int stride) throws NotFoundException;
+    
+    /**
+     * Decode a code straight from a generated matrix, such as the output of
+     * {@link ICodeGenerator#generateMatrix}; the matrix is used as the thresholded image
+     * No image, PNG or file is involved, which makes round-trip checks nearly free
+     * 
+     * @param matrix The matrix; set bits are black
+     * @return The decode result
+     * @throws NotFoundException If no code is found
+     */
+    DecodeResult readMatrix(BitMatrix matrix) throws NotFoundException;
+    
+    /**
+     * Find and decode every code in an image file
+     * The image is binarized once; large images are searched in overlapping regions in parallel
+     * 
+     * @param filePath Path to the image file
+     * @return All distinct codes found, with their positions in image coordinates
+     * @throws IOException       If file reading fails
+     * @throws NotFoundException If no code is found
+     */
+    List<DecodeResult> readMultiple(String filePath) throws IOException, NotFoundException;
+    
+    /**
+     * Find and decode every code in encoded image bytes held in memory
+     * 
+     * @param imageData The encoded image file contents
+     * @return All distinct codes found, with their positions in image coordinates
+     * @throws IOException       If the bytes are not a readable image
+     * @throws NotFoundException If no code is found
+     */
+    List<DecodeResult> readMultiple(byte[] imageData) throws IOException, NotFoundException;
+    
     /**
      * Get the format this reader supports
      * 
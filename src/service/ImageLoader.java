@@ -0,0 +1,505 @@
+package service;
+
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import model.PipelineStage;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import javax.imageio.IIOException;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageInputStreamImpl;
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.IndexColorModel;
+import java.awt.image.Raster;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Image loading that goes straight to an 8-bit luminance plane
+ * PNG, JPEG, GIF and BMP are recognised by their signature and decoded by an {@link ImageReader}
+ * kept per thread, so no service-provider lookup happens per image; other formats fall back to
+ * the generic ImageIO lookup
+ * Files are read into memory with one channel read rather than copied through streams, colour
+ * JPEGs give up their stored luma channel without any colour conversion, and other images are
+ * converted to grayscale directly from their raster data
+ * Files are not memory-mapped: a mapping holds the file open until it is garbage collected, which
+ * on Windows keeps it from being overwritten or deleted after it was read
+ */
+public final class ImageLoader {
+
+    private static final String JPEG_METADATA_FORMAT = "javax_imageio_jpeg_image_1.0";
+
+    // ImageReaders are stateful, so each thread keeps its own
+    private static final ThreadLocal<Map<Encoding, ImageReader>> READERS =
+            ThreadLocal.withInitial(() -> new EnumMap<>(Encoding.class));
+
+    private ImageLoader() {
+    }
+
+    /**
+     * Load an image file as luminance at full resolution
+     *
+     * @param file The image file
+     * @return The luminance, or null if the file is not in a readable image format
+     * @throws IOException If the file cannot be read or the image is corrupt
+     */
+    public static LuminanceSource loadLuminance(Path file) throws IOException {
+        return loadLuminance(file, 0);
+    }
+
+    /**
+     * Load an image file as luminance, subsampled when a smaller resolution is enough
+     *
+     * @param file         The image file
+     * @param maxDimension Longest side needed; the image is reduced by a whole factor while its
+     *                     longest side stays at least this long, 0 for full resolution
+     * @return The luminance, or null if the file is not in a readable image format
+     * @throws IOException If the file cannot be read or the image is corrupt
+     */
+    public static LuminanceSource loadLuminance(Path file, int maxDimension) throws IOException {
+        long load = Metrics.start();
+        return luminance(readFile(file), maxDimension, load);
+    }
+
+    /**
+     * Load encoded image bytes as luminance at full resolution
+     *
+     * @param encoded The encoded image from its position to its limit; heap or direct
+     * @return The luminance, or null if the data is not in a readable image format
+     * @throws IOException If the image is corrupt
+     */
+    public static LuminanceSource loadLuminance(ByteBuffer encoded) throws IOException {
+        return loadLuminance(encoded, 0);
+    }
+
+    /**
+     * Load encoded image bytes as luminance, subsampled when a smaller resolution is enough
+     *
+     * @param encoded      The encoded image from its position to its limit; heap or direct
+     * @param maxDimension Longest side needed, or 0 for full resolution
+     * @return The luminance, or null if the data is not in a readable image format
+     * @throws IOException If the image is corrupt
+     */
+    public static LuminanceSource loadLuminance(ByteBuffer encoded, int maxDimension) throws IOException {
+        return luminance(encoded.slice(), maxDimension, Metrics.start());
+    }
+
+    /**
+     * Load an image file in colour, subsampled when a smaller resolution is enough, e.g. for a preview
+     *
+     * @param file         The image file
+     * @param maxDimension Longest side needed, or 0 for full resolution
+     * @return The image, or null if the file is not in a readable image format
+     * @throws IOException If the file cannot be read or the image is corrupt
+     */
+    public static BufferedImage loadImage(Path file, int maxDimension) throws IOException {
+        return read(readFile(file), maxDimension, (reader, param, encoding) -> reader.read(0, param));
+    }
+
+    /**
+     * Read the pixel count of encoded image bytes from the image header, without decoding pixels
+     * Lets a caller refuse an image whose decoded size would not fit before any of it is allocated
+     *
+     * @param encoded The encoded image from its position to its limit; heap or direct
+     * @return Width times height of the first image, or -1 if the data is not in a readable image format
+     * @throws IOException If the header is corrupt
+     */
+    public static long pixelCount(ByteBuffer encoded) throws IOException {
+        Long pixels = read(encoded.slice(), 0,
+                (reader, param, encoding) -> reader.getWidth(0) * (long) reader.getHeight(0));
+        return pixels == null ? -1 : pixels;
+    }
+
+    private static LuminanceSource luminance(ByteBuffer data, int maxDimension, long load) throws IOException {
+        return read(data, maxDimension, (reader, param, encoding) -> {
+            if (encoding == Encoding.JPEG && reader.canReadRaster() && storesLuma(reader.getImageMetadata(0))) {
+                // The raw raster skips colour conversion; its first band is already the luma
+                Raster raster = reader.readRaster(0, param);
+                Metrics.stop(PipelineStage.IMAGE_LOAD, load);
+                long convert = Metrics.start();
+                LuminanceSource source = plane(band(raster, 0), raster.getWidth(), raster.getHeight());
+                Metrics.stop(PipelineStage.LUMINANCE, convert);
+                return source;
+            }
+            BufferedImage image = reader.read(0, param);
+            Metrics.stop(PipelineStage.IMAGE_LOAD, load);
+            long convert = Metrics.start();
+            LuminanceSource source = toLuminance(image);
+            Metrics.stop(PipelineStage.LUMINANCE, convert);
+            return source;
+        });
+    }
+
+    private static <T> T read(ByteBuffer data, int maxDimension, ReadStep<T> step) throws IOException {
+        if (maxDimension < 0) {
+            throw new IllegalArgumentException("Maximum dimension cannot be negative");
+        }
+        Encoding encoding = Encoding.detect(data);
+        ImageInputStream input = new ByteBufferImageInputStream(data);
+        ImageReader reader = encoding == null ? null : cachedReader(encoding);
+        boolean cached = reader != null;
+        if (!cached) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            reader = readers.next();
+        }
+
+        boolean completed = false;
+        try {
+            reader.setInput(input, true, true);
+            ImageReadParam param = reader.getDefaultReadParam();
+            int factor = subsampling(reader.getWidth(0), reader.getHeight(0), maxDimension);
+            if (factor > 1) {
+                param.setSourceSubsampling(factor, factor, 0, 0);
+            }
+            T result = step.read(reader, param, encoding);
+            completed = true;
+            return result;
+        } catch (IIOException e) {
+            throw e;
+        } catch (IOException e) {
+            // The data is already in memory, so any failure here is in the image itself
+            throw new IIOException("Corrupt image data", e);
+        } finally {
+            reader.setInput(null);
+            input.close();
+            if (!cached) {
+                reader.dispose();
+            } else if (!completed) {
+                // A reader that failed mid-image is not trusted with the next one
+                READERS.get().remove(encoding);
+                reader.dispose();
+            }
+        }
+    }
+
+    private static ImageReader cachedReader(Encoding encoding) {
+        Map<Encoding, ImageReader> readers = READERS.get();
+        ImageReader reader = readers.get(encoding);
+        if (reader == null) {
+            Iterator<ImageReader> found = ImageIO.getImageReadersByFormatName(encoding.formatName);
+            if (!found.hasNext()) {
+                return null;
+            }
+            reader = found.next();
+            readers.put(encoding, reader);
+        }
+        return reader;
+    }
+
+    static int subsampling(int width, int height, int maxDimension) {
+        if (maxDimension == 0) {
+            return 1;
+        }
+        return Math.max(1, Math.max(width, height) / maxDimension);
+    }
+
+    private static ByteBuffer readFile(Path file) throws IOException {
+        FileChannel opened;
+        try {
+            opened = FileChannel.open(file, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            // The bare path the channel reports reads poorly in CLI and GUI error messages
+            throw new NoSuchFileException(file.toString(), null, "Image file not found");
+        }
+        try (FileChannel channel = opened) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Image file is too large: " + file);
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Keep reading until the file is in memory
+            }
+            return buffer.flip();
+        }
+    }
+
+    /**
+     * Check whether a JPEG's first stored channel is luminance, following the JFIF and Adobe
+     * conventions used by the JDK decoder
+     */
+    private static boolean storesLuma(IIOMetadata metadata) {
+        Node root = metadata.getAsTree(JPEG_METADATA_FORMAT);
+        Node sof = find(root, "sof");
+        if (sof == null) {
+            return false;
+        }
+        int components = sof.getChildNodes().getLength();
+        if (components == 1) {
+            return true;
+        }
+        if (components != 3) {
+            return false;
+        }
+        if (find(root, "app0JFIF") != null) {
+            return true;
+        }
+        Node adobe = find(root, "app14Adobe");
+        if (adobe != null) {
+            return "1".equals(attribute(adobe, "transform"));
+        }
+        // Without either marker, channels labelled R, G and B hold RGB; anything else is YCbCr
+        return !("82".equals(attribute(sof.getChildNodes().item(0), "componentId"))
+                && "71".equals(attribute(sof.getChildNodes().item(1), "componentId"))
+                && "66".equals(attribute(sof.getChildNodes().item(2), "componentId")));
+    }
+
+    private static Node find(Node node, String name) {
+        if (name.equals(node.getNodeName())) {
+            return node;
+        }
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+            Node found = find(child, name);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    private static String attribute(Node node, String name) {
+        NamedNodeMap attributes = node.getAttributes();
+        Node attribute = attributes == null ? null : attributes.getNamedItem(name);
+        return attribute == null ? null : attribute.getNodeValue();
+    }
+
+    /**
+     * Convert a decoded image to luminance with ZXing's weights, reading the raster data directly
+     * for the layouts ImageIO produces; transparent pixels count as white
+     */
+    static LuminanceSource toLuminance(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        Raster raster = image.getRaster();
+        if (raster.getSampleModelTranslateX() != 0 || raster.getSampleModelTranslateY() != 0
+                || raster.getDataBuffer().getOffset() != 0) {
+            // A view into a larger image, which ImageIO never returns
+            return new BufferedImageLuminanceSource(image);
+        }
+        return switch (image.getType()) {
+            case BufferedImage.TYPE_BYTE_GRAY -> plane(band(raster, 0), width, height);
+            case BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR -> plane(interleaved(raster), width, height);
+            case BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB -> plane(packed(raster), width, height);
+            default -> image.getColorModel() instanceof IndexColorModel palette
+                    ? plane(indexed(raster, palette), width, height)
+                    : new BufferedImageLuminanceSource(image);
+        };
+    }
+
+    private static LuminanceSource plane(byte[] luminance, int width, int height) {
+        return new ByteBufferLuminanceSource(ByteBuffer.wrap(luminance), width, height, width);
+    }
+
+    /**
+     * Copy one band of a byte raster into a packed plane, or return the raster's own array when
+     * it already is one
+     */
+    private static byte[] band(Raster raster, int band) {
+        int width = raster.getWidth();
+        int height = raster.getHeight();
+        ComponentSampleModel model = (ComponentSampleModel) raster.getSampleModel();
+        DataBufferByte buffer = (DataBufferByte) raster.getDataBuffer();
+        int bank = model.getBankIndices()[band];
+        byte[] data = buffer.getData(bank);
+        int pixelStride = model.getPixelStride();
+        int scanline = model.getScanlineStride();
+        int base = buffer.getOffsets()[bank] + model.getOffset(raster.getMinX() - raster.getSampleModelTranslateX(),
+                raster.getMinY() - raster.getSampleModelTranslateY(), band);
+
+        if (pixelStride == 1 && scanline == width && base == 0 && data.length == width * height) {
+            return data;
+        }
+        byte[] plane = new byte[width * height];
+        for (int y = 0; y < height; y++) {
+            int in = base + y * scanline;
+            int out = y * width;
+            if (pixelStride == 1) {
+                System.arraycopy(data, in, plane, out, width);
+            } else {
+                for (int x = 0; x < width; x++, in += pixelStride) {
+                    plane[out + x] = data[in];
+                }
+            }
+        }
+        return plane;
+    }
+
+    private static byte[] interleaved(Raster raster) {
+        int width = raster.getWidth();
+        int height = raster.getHeight();
+        ComponentSampleModel model = (ComponentSampleModel) raster.getSampleModel();
+        byte[] data = ((DataBufferByte) raster.getDataBuffer()).getData();
+        int[] offsets = model.getBandOffsets();
+        int red = offsets[0];
+        int green = offsets[1];
+        int blue = offsets[2];
+        int alpha = offsets.length > 3 ? offsets[3] : -1;
+        int pixelStride = model.getPixelStride();
+        int scanline = model.getScanlineStride();
+
+        byte[] plane = new byte[width * height];
+        for (int y = 0; y < height; y++) {
+            int in = y * scanline;
+            int out = y * width;
+            for (int x = 0; x < width; x++, in += pixelStride) {
+                plane[out + x] = alpha >= 0 && data[in + alpha] == 0
+                        ? (byte) 0xFF
+                        : luma(data[in + red] & 0xFF, data[in + green] & 0xFF, data[in + blue] & 0xFF);
+            }
+        }
+        return plane;
+    }
+
+    private static byte[] packed(Raster raster) {
+        int width = raster.getWidth();
+        int height = raster.getHeight();
+        int[] data = ((DataBufferInt) raster.getDataBuffer()).getData();
+        int scanline = ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride();
+        boolean alpha = raster.getNumBands() > 3;
+
+        byte[] plane = new byte[width * height];
+        for (int y = 0; y < height; y++) {
+            int in = y * scanline;
+            int out = y * width;
+            for (int x = 0; x < width; x++) {
+                int pixel = data[in + x];
+                plane[out + x] = alpha && (pixel & 0xFF000000) == 0
+                        ? (byte) 0xFF
+                        : luma((pixel >> 16) & 0xFF, (pixel >> 8) & 0xFF, pixel & 0xFF);
+            }
+        }
+        return plane;
+    }
+
+    private static byte[] indexed(Raster raster, IndexColorModel palette) {
+        int width = raster.getWidth();
+        int height = raster.getHeight();
+        byte[] lookup = new byte[palette.getMapSize()];
+        for (int i = 0; i < lookup.length; i++) {
+            int argb = palette.getRGB(i);
+            lookup[i] = (argb & 0xFF000000) == 0
+                    ? (byte) 0xFF
+                    : luma((argb >> 16) & 0xFF, (argb >> 8) & 0xFF, argb & 0xFF);
+        }
+
+        byte[] plane = new byte[width * height];
+        int[] row = new int[width];
+        for (int y = 0; y < height; y++) {
+            raster.getSamples(raster.getMinX(), raster.getMinY() + y, width, 1, 0, row);
+            int out = y * width;
+            for (int x = 0; x < width; x++) {
+                plane[out + x] = lookup[row[x]];
+            }
+        }
+        return plane;
+    }
+
+    // The same integer weights as BufferedImageLuminanceSource
+    private static byte luma(int red, int green, int blue) {
+        return (byte) ((306 * red + 601 * green + 117 * blue + 0x200) >> 10);
+    }
+
+    @FunctionalInterface
+    private interface ReadStep<T> {
+        T read(ImageReader reader, ImageReadParam param, Encoding encoding) throws IOException;
+    }
+
+    private enum Encoding {
+        PNG("png"),
+        JPEG("jpeg"),
+        GIF("gif"),
+        BMP("bmp");
+
+        private final String formatName;
+
+        Encoding(String formatName) {
+            this.formatName = formatName;
+        }
+
+        static Encoding detect(ByteBuffer data) {
+            int p = data.position();
+            int available = data.remaining();
+            if (available >= 4 && (data.get(p) & 0xFF) == 0x89 && data.get(p + 1) == 'P'
+                    && data.get(p + 2) == 'N' && data.get(p + 3) == 'G') {
+                return PNG;
+            }
+            if (available >= 3 && (data.get(p) & 0xFF) == 0xFF && (data.get(p + 1) & 0xFF) == 0xD8
+                    && (data.get(p + 2) & 0xFF) == 0xFF) {
+                return JPEG;
+            }
+            if (available >= 4 && data.get(p) == 'G' && data.get(p + 1) == 'I'
+                    && data.get(p + 2) == 'F' && data.get(p + 3) == '8') {
+                return GIF;
+            }
+            if (available >= 2 && data.get(p) == 'B' && data.get(p + 1) == 'M') {
+                return BMP;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Image input over a buffer, so file contents and byte arrays are read in place without the
+     * stream caching ImageIO adds to plain input streams
+     */
+    private static final class ByteBufferImageInputStream extends ImageInputStreamImpl {
+        private final ByteBuffer data;
+
+        ByteBufferImageInputStream(ByteBuffer data) {
+            this.data = data.slice();
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkClosed();
+            bitOffset = 0;
+            if (streamPos >= data.limit()) {
+                return -1;
+            }
+            return data.get((int) streamPos++) & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            checkClosed();
+            Objects.checkFromIndexSize(off, len, b.length);
+            bitOffset = 0;
+            if (len == 0) {
+                return 0;
+            }
+            long remaining = data.limit() - streamPos;
+            if (remaining <= 0) {
+                return -1;
+            }
+            int count = (int) Math.min(len, remaining);
+            data.get((int) streamPos, b, off, count);
+            streamPos += count;
+            return count;
+        }
+
+        @Override
+        public long length() {
+            return data.limit();
+        }
+    }
+}
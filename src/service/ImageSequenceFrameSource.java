@@ -0,0 +1,67 @@
+package service;
+
+import com.google.zxing.LuminanceSource;
+import model.Frame;
+
+import javax.imageio.IIOException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Frame source that plays the images of a directory in file-name order
+ * Useful for replaying captured frames and for tests
+ */
+public class ImageSequenceFrameSource implements FrameSource {
+
+    private final List<Path> files;
+    private final FramePacer pacer;
+    private int index;
+    private volatile long corrupt;
+
+    /**
+     * @param directory Directory holding the frames; non-image files are ignored
+     * @param fps       Playback rate, or 0 to read frames as fast as possible
+     * @throws IOException If the directory cannot be listed
+     */
+    public ImageSequenceFrameSource(Path directory, double fps) throws IOException {
+        try (Stream<Path> entries = Files.list(directory)) {
+            this.files = entries.filter(BatchCodeReader::isImageFile).sorted().toList();
+        }
+        this.pacer = new FramePacer(fps);
+    }
+
+    @Override
+    public Frame next() throws IOException {
+        while (index < files.size()) {
+            Path file = files.get(index);
+            long sequence = index++;
+            pacer.await(sequence);
+            LuminanceSource luminance;
+            try {
+                luminance = ImageLoader.loadLuminance(file);
+            } catch (IIOException e) {
+                // A corrupt image is skipped, like a corrupt frame from a camera; a file that
+                // cannot be read at all still ends the stream
+                luminance = null;
+            }
+            if (luminance != null) {
+                return Frame.of(sequence, luminance);
+            }
+            corrupt++;
+        }
+        return null;
+    }
+
+    @Override
+    public long corruptFrames() {
+        return corrupt;
+    }
+
+    @Override
+    public void close() {
+        index = files.size();
+    }
+}
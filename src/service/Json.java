@@ -0,0 +1,43 @@
+package service;
+
+/**
+ * Minimal JSON text helpers for the line-oriented outputs of the CLI and HTTP service
+ * Only string escaping is needed; objects are assembled by the callers
+ */
+public final class Json {
+
+    private Json() {
+    }
+
+    /**
+     * Append a value as a quoted JSON string
+     *
+     * @param target The builder to append to
+     * @param value  The string to quote; null is written as JSON null
+     * @return The builder, for chaining
+     */
+    public static StringBuilder appendString(StringBuilder target, String value) {
+        if (value == null) {
+            return target.append("null");
+        }
+        target.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> target.append("\\\"");
+                case '\\' -> target.append("\\\\");
+                case '\n' -> target.append("\\n");
+                case '\r' -> target.append("\\r");
+                case '\t' -> target.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        target.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        target.append(c);
+                    }
+                }
+            }
+        }
+        return target.append('"');
+    }
+}
@@ -0,0 +1,243 @@
+package service;
+
+import com.google.zxing.NotFoundException;
+import model.DecodeResult;
+import model.Frame;
+import model.ScanResult;
+import model.StreamStats;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Continuous scanning of a frame stream with a producer/consumer pipeline
+ * One thread captures frames into a queue holding one frame per worker; when the workers
+ * fall behind, the oldest queued frame is dropped so decoding always works on recent frames
+ * A code seen again within the dedup window is not reported again; the window restarts on
+ * every sighting, so a code held in view is reported once
+ */
+public class LiveScanPipeline implements AutoCloseable {
+
+    private static final Duration DEFAULT_DEDUP_WINDOW = Duration.ofSeconds(2);
+
+    // Tells a worker to exit; never decoded
+    private static final Frame END_OF_STREAM = new Frame(-1, 0, new byte[0], 0, 0);
+
+    // The seen-codes map is swept of expired entries once it grows past this
+    private static final int DEDUP_SWEEP_SIZE = 1024;
+
+    private final ICodeReader reader;
+    private final int workers;
+    private final long dedupWindowNanos;
+    private final BlockingDeque<Frame> frames;
+    private final Map<String, Long> lastSeen = new ConcurrentHashMap<>();
+
+    private final LongAdder captured = new LongAdder();
+    private final LongAdder decoded = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder reported = new LongAdder();
+    private final LongAdder suppressed = new LongAdder();
+    private final LongAdder totalLatency = new LongAdder();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    private CountDownLatch finished;
+    private Thread producer;
+    private volatile FrameSource frameSource;
+    private volatile boolean closed;
+    private volatile long startNanos;
+    private volatile IOException sourceError;
+
+    /**
+     * Create a pipeline with one worker per available processor and a 2 second dedup window
+     *
+     * @param reader The reader used to decode frames (must be thread-safe)
+     */
+    public LiveScanPipeline(ICodeReader reader) {
+        this(reader, Runtime.getRuntime().availableProcessors(), DEFAULT_DEDUP_WINDOW);
+    }
+
+    /**
+     * Create a pipeline
+     *
+     * @param reader      The reader used to decode frames (must be thread-safe)
+     * @param workers     Number of decode threads
+     * @param dedupWindow How long a reported code stays suppressed after it was last seen
+     */
+    public LiveScanPipeline(ICodeReader reader, int workers, Duration dedupWindow) {
+        if (reader == null) {
+            throw new IllegalArgumentException("Reader cannot be null");
+        }
+        if (workers < 1) {
+            throw new IllegalArgumentException("Worker count must be at least 1");
+        }
+        this.reader = reader;
+        this.workers = workers;
+        this.dedupWindowNanos = dedupWindow.toNanos();
+        this.frames = new LinkedBlockingDeque<>(workers);
+    }
+
+    /**
+     * Start scanning a source in the background
+     * The pipeline takes ownership of the source and closes it when the stream ends
+     *
+     * @param source   The frames to scan
+     * @param listener Receives each new code; called on worker threads, so it must be thread-safe
+     */
+    public synchronized void start(FrameSource source, Consumer<ScanResult> listener) {
+        if (producer != null) {
+            throw new IllegalStateException("Pipeline has already been started");
+        }
+        startNanos = System.nanoTime();
+        frameSource = source;
+        finished = new CountDownLatch(workers);
+        for (int i = 0; i < workers; i++) {
+            startDaemon(() -> decodeLoop(listener), "live-scan-worker-" + i);
+        }
+        producer = startDaemon(() -> captureLoop(source), "live-scan-capture");
+    }
+
+    /**
+     * Wait until a finite source has been played to the end and every captured frame handled
+     *
+     * @throws IOException          If the source failed while reading
+     * @throws InterruptedException If the calling thread is interrupted while waiting
+     */
+    public void awaitCompletion() throws IOException, InterruptedException {
+        if (finished == null) {
+            throw new IllegalStateException("Pipeline has not been started");
+        }
+        finished.await();
+        if (sourceError != null) {
+            throw sourceError;
+        }
+    }
+
+    /**
+     * Get a snapshot of the pipeline counters
+     *
+     * @return The current statistics
+     */
+    public StreamStats getStats() {
+        long elapsed = startNanos == 0 ? 0 : System.nanoTime() - startNanos;
+        FrameSource source = frameSource;
+        long corrupt = source == null ? 0 : source.corruptFrames();
+        return new StreamStats(captured.sum(), decoded.sum(), dropped.sum(), corrupt, failed.sum(), reported.sum(),
+                suppressed.sum(), elapsed, totalLatency.sum(), maxLatency.get());
+    }
+
+    private void captureLoop(FrameSource source) {
+        try (source) {
+            Frame frame;
+            while (!closed && (frame = source.next()) != null) {
+                captured.increment();
+                // Never block the camera: make room by discarding the stalest frame
+                while (!frames.offerLast(frame)) {
+                    if (frames.pollFirst() != null) {
+                        dropped.increment();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // An interrupted read after close() is the normal way out, not a failure
+            if (!closed) {
+                sourceError = e;
+            }
+        } finally {
+            // Clear a close() interrupt so the workers are always told to finish
+            Thread.interrupted();
+            try {
+                for (int i = 0; i < workers; i++) {
+                    frames.putLast(END_OF_STREAM);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void decodeLoop(Consumer<ScanResult> listener) {
+        try {
+            while (true) {
+                Frame frame = frames.takeFirst();
+                if (frame == END_OF_STREAM) {
+                    return;
+                }
+                try {
+                    decodeFrame(frame, listener);
+                } catch (RuntimeException e) {
+                    // A bad frame or listener must not take the worker down; with every worker gone
+                    // nothing drains the queue and the capture thread would block for good
+                    failed.increment();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            finished.countDown();
+        }
+    }
+
+    private void decodeFrame(Frame frame, Consumer<ScanResult> listener) {
+        DecodeResult result = null;
+        try {
+            result = reader.readLuminance(frame.luminance(), frame.width(), frame.height(), frame.width());
+        } catch (NotFoundException e) {
+            // Most frames of a live stream contain no code
+        }
+
+        long now = System.nanoTime();
+        long latency = now - frame.capturedNanos();
+        decoded.increment();
+        totalLatency.add(latency);
+        maxLatency.accumulateAndGet(latency, Math::max);
+
+        if (result == null) {
+            return;
+        }
+        if (isDuplicate(result, now)) {
+            suppressed.increment();
+            return;
+        }
+        reported.increment();
+        listener.accept(new ScanResult(result, frame.sequence(), latency));
+    }
+
+    /**
+     * Record a sighting and check whether the same code was already seen within the window
+     */
+    private boolean isDuplicate(DecodeResult result, long now) {
+        String key = result.barcodeFormat() + ":" + result.text();
+        Long previous = lastSeen.put(key, now);
+        if (lastSeen.size() > DEDUP_SWEEP_SIZE) {
+            lastSeen.values().removeIf(seen -> now - seen > dedupWindowNanos);
+        }
+        return previous != null && now - previous <= dedupWindowNanos;
+    }
+
+    private static Thread startDaemon(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Stop capturing; frames already queued are still decoded
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (producer != null) {
+            producer.interrupt();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package service;
+
+import model.CodeFormat;
+import model.PipelineStage;
+
+/**
+ * Process-wide switch for encode/decode instrumentation
+ * Disabled by default: every hook is then one read of a volatile field and no clock is read
+ * Start the JVM with {@code -Dqrcode.metrics.jmx=true} to install a {@link MetricsRegistry}
+ * exposed through JMX without code changes
+ */
+public final class Metrics {
+
+    private static volatile MetricsSink sink;
+
+    static {
+        if (Boolean.getBoolean("qrcode.metrics.jmx")) {
+            MetricsRegistry registry = new MetricsRegistry();
+            registry.registerMBeans();
+            sink = registry;
+        }
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     * Send all measurements to a sink, replacing any previous one
+     *
+     * @param metricsSink The sink, or null to disable instrumentation
+     */
+    public static void install(MetricsSink metricsSink) {
+        sink = metricsSink;
+    }
+
+    /**
+     * Get the installed sink
+     *
+     * @return The sink, or null if instrumentation is disabled
+     */
+    public static MetricsSink installed() {
+        return sink;
+    }
+
+    /**
+     * Start timing a step
+     *
+     * @return A start time for {@link #stop}, or 0 when instrumentation is disabled
+     */
+    static long start() {
+        return sink == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Record the time since {@link #start}; does nothing if it returned 0
+     */
+    static void stop(PipelineStage stage, long start) {
+        MetricsSink current = sink;
+        if (start != 0 && current != null) {
+            current.recordStage(stage, System.nanoTime() - start);
+        }
+    }
+
+    static void decoded(CodeFormat format, boolean success, long start) {
+        MetricsSink current = sink;
+        if (start != 0 && current != null) {
+            current.recordDecode(format, success, System.nanoTime() - start);
+        }
+    }
+
+    static void encoded(CodeFormat format, boolean success, long start) {
+        MetricsSink current = sink;
+        if (start != 0 && current != null) {
+            current.recordEncode(format, success, System.nanoTime() - start);
+        }
+    }
+}
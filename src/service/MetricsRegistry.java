@@ -0,0 +1,296 @@
+package service;
+
+import model.CodeFormat;
+import model.FormatMetrics;
+import model.LatencySnapshot;
+import model.PipelineStage;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory {@link MetricsSink}: a latency histogram per pipeline stage and success/failure
+ * counters with latency histograms per code format
+ * Can publish itself as JMX MXBeans under {@code qrcode:type=Stage,name=<stage>} and
+ * {@code qrcode:type=Format,name=<format>}; failures of multi-format readers appear under
+ * {@code name=ANY}
+ */
+public class MetricsRegistry implements MetricsSink {
+
+    public static final String DOMAIN = "qrcode";
+
+    private static final String ANY_FORMAT = "ANY";
+
+    private final Map<PipelineStage, LatencyHistogram> stages = new EnumMap<>(PipelineStage.class);
+
+    // Indexed by CodeFormat ordinal; the extra last slot is for readers without a single format
+    private final FormatCounters[] formats = new FormatCounters[CodeFormat.values().length + 1];
+
+    private final List<ObjectName> registered = new ArrayList<>();
+
+    public MetricsRegistry() {
+        for (PipelineStage stage : PipelineStage.values()) {
+            stages.put(stage, new LatencyHistogram());
+        }
+        for (int i = 0; i < formats.length; i++) {
+            formats[i] = new FormatCounters();
+        }
+    }
+
+    @Override
+    public void recordStage(PipelineStage stage, long nanos) {
+        stages.get(stage).record(nanos);
+    }
+
+    @Override
+    public void recordDecode(CodeFormat format, boolean success, long nanos) {
+        FormatCounters counters = counters(format);
+        (success ? counters.decodeSuccesses : counters.decodeFailures).increment();
+        counters.decodeLatency.record(nanos);
+    }
+
+    @Override
+    public void recordEncode(CodeFormat format, boolean success, long nanos) {
+        FormatCounters counters = counters(format);
+        (success ? counters.encodeSuccesses : counters.encodeFailures).increment();
+        counters.encodeLatency.record(nanos);
+    }
+
+    /**
+     * Get the latency distribution of one stage
+     *
+     * @param stage The stage
+     * @return The current summary
+     */
+    public LatencySnapshot getStage(PipelineStage stage) {
+        return stages.get(stage).snapshot();
+    }
+
+    /**
+     * Get the counters of one format
+     *
+     * @param format The format, or null for failures of multi-format readers
+     * @return The current counters
+     */
+    public FormatMetrics getFormat(CodeFormat format) {
+        return counters(format).snapshot();
+    }
+
+    /**
+     * Clear every histogram and counter
+     */
+    public void reset() {
+        stages.values().forEach(LatencyHistogram::reset);
+        for (FormatCounters counters : formats) {
+            counters.reset();
+        }
+    }
+
+    /**
+     * Publish the metrics as MXBeans on the platform MBean server
+     * Beans already registered under the same names, e.g. by an earlier registry, are replaced
+     */
+    public synchronized void registerMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            for (PipelineStage stage : PipelineStage.values()) {
+                register(server, "Stage", stage.name(), new StageBean(stages.get(stage)));
+            }
+            for (CodeFormat format : CodeFormat.values()) {
+                register(server, "Format", format.name(), new FormatBean(counters(format)));
+            }
+            register(server, "Format", ANY_FORMAT, new FormatBean(counters(null)));
+        } catch (JMException e) {
+            throw new IllegalStateException("Unable to register metrics MBeans", e);
+        }
+    }
+
+    /**
+     * Remove the MXBeans published by {@link #registerMBeans}
+     */
+    public synchronized void unregisterMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName name : registered) {
+            try {
+                server.unregisterMBean(name);
+            } catch (InstanceNotFoundException e) {
+                // Already replaced by another registry
+            } catch (JMException e) {
+                throw new IllegalStateException("Unable to unregister " + name, e);
+            }
+        }
+        registered.clear();
+    }
+
+    private void register(MBeanServer server, String type, String name, Object bean) throws JMException {
+        ObjectName objectName = new ObjectName(DOMAIN + ":type=" + type + ",name=" + name);
+        if (server.isRegistered(objectName)) {
+            server.unregisterMBean(objectName);
+        }
+        server.registerMBean(bean, objectName);
+        registered.add(objectName);
+    }
+
+    private FormatCounters counters(CodeFormat format) {
+        return formats[format == null ? formats.length - 1 : format.ordinal()];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class FormatCounters {
+        final LongAdder decodeSuccesses = new LongAdder();
+        final LongAdder decodeFailures = new LongAdder();
+        final LongAdder encodeSuccesses = new LongAdder();
+        final LongAdder encodeFailures = new LongAdder();
+        final LatencyHistogram decodeLatency = new LatencyHistogram();
+        final LatencyHistogram encodeLatency = new LatencyHistogram();
+
+        FormatMetrics snapshot() {
+            return new FormatMetrics(decodeSuccesses.sum(), decodeFailures.sum(), encodeSuccesses.sum(),
+                    encodeFailures.sum(), decodeLatency.snapshot(), encodeLatency.snapshot());
+        }
+
+        void reset() {
+            decodeSuccesses.reset();
+            decodeFailures.reset();
+            encodeSuccesses.reset();
+            encodeFailures.reset();
+            decodeLatency.reset();
+            encodeLatency.reset();
+        }
+    }
+
+    /**
+     * JMX view of one stage's latency histogram
+     */
+    public interface StageMetricsMXBean {
+        long getCount();
+
+        double getMeanMillis();
+
+        double getP50Millis();
+
+        double getP90Millis();
+
+        double getP99Millis();
+
+        double getP999Millis();
+
+        double getMaxMillis();
+
+        void reset();
+    }
+
+    /**
+     * JMX view of one format's counters
+     */
+    public interface FormatMetricsMXBean {
+        long getDecodeSuccesses();
+
+        long getDecodeFailures();
+
+        long getEncodeSuccesses();
+
+        long getEncodeFailures();
+
+        double getDecodeP99Millis();
+
+        double getEncodeP99Millis();
+    }
+
+    private static final class StageBean implements StageMetricsMXBean {
+        private final LatencyHistogram histogram;
+
+        StageBean(LatencyHistogram histogram) {
+            this.histogram = histogram;
+        }
+
+        @Override
+        public long getCount() {
+            return histogram.snapshot().count();
+        }
+
+        @Override
+        public double getMeanMillis() {
+            return histogram.snapshot().meanNanos() / 1_000_000.0;
+        }
+
+        @Override
+        public double getP50Millis() {
+            return millis(histogram.snapshot().p50Nanos());
+        }
+
+        @Override
+        public double getP90Millis() {
+            return millis(histogram.snapshot().p90Nanos());
+        }
+
+        @Override
+        public double getP99Millis() {
+            return millis(histogram.snapshot().p99Nanos());
+        }
+
+        @Override
+        public double getP999Millis() {
+            return millis(histogram.snapshot().p999Nanos());
+        }
+
+        @Override
+        public double getMaxMillis() {
+            return millis(histogram.snapshot().maxNanos());
+        }
+
+        @Override
+        public void reset() {
+            histogram.reset();
+        }
+    }
+
+    private static final class FormatBean implements FormatMetricsMXBean {
+        private final FormatCounters counters;
+
+        FormatBean(FormatCounters counters) {
+            this.counters = counters;
+        }
+
+        @Override
+        public long getDecodeSuccesses() {
+            return counters.decodeSuccesses.sum();
+        }
+
+        @Override
+        public long getDecodeFailures() {
+            return counters.decodeFailures.sum();
+        }
+
+        @Override
+        public long getEncodeSuccesses() {
+            return counters.encodeSuccesses.sum();
+        }
+
+        @Override
+        public long getEncodeFailures() {
+            return counters.encodeFailures.sum();
+        }
+
+        @Override
+        public double getDecodeP99Millis() {
+            return millis(counters.decodeLatency.snapshot().p99Nanos());
+        }
+
+        @Override
+        public double getEncodeP99Millis() {
+            return millis(counters.encodeLatency.snapshot().p99Nanos());
+        }
+    }
+}
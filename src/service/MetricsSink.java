@@ -0,0 +1,38 @@
+package service;
+
+import model.CodeFormat;
+import model.PipelineStage;
+
+/**
+ * Receiver of encode/decode measurements
+ * Install one with {@link Metrics#install}; calls arrive on the threads doing the work,
+ * so implementations must be thread-safe and should not block
+ */
+public interface MetricsSink {
+
+    /**
+     * Record the time spent in one step of a decode or encode
+     *
+     * @param stage The step
+     * @param nanos Time spent, in nanoseconds
+     */
+    void recordStage(PipelineStage stage, long nanos);
+
+    /**
+     * Record the outcome of one decode
+     *
+     * @param format  The format found, or on failure the reader's format (null for multi-format readers)
+     * @param success Whether a code was found
+     * @param nanos   Total read time as reported by the result, including image loading
+     */
+    void recordDecode(CodeFormat format, boolean success, long nanos);
+
+    /**
+     * Record the outcome of one matrix encode
+     *
+     * @param format  The format encoded
+     * @param success Whether encoding succeeded
+     * @param nanos   Encode time, in nanoseconds
+     */
+    void recordEncode(CodeFormat format, boolean success, long nanos);
+}
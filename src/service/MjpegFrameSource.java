@@ -0,0 +1,218 @@
+package service;
+
+import com.google.zxing.LuminanceSource;
+import model.Frame;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Frame source for Motion JPEG: a video that is a sequence of complete JPEG images
+ * Frames are cut at JPEG start/end-of-image markers, so raw .mjpeg files, HTTP multipart camera
+ * streams and MJPEG AVI files can all be read with ImageIO and no native codecs
+ * The marker segments of each image are walked by their lengths, so an end-of-image marker inside
+ * one, such as that of an EXIF thumbnail, does not end the frame
+ */
+public class MjpegFrameSource implements FrameSource {
+
+    private static final int MARKER = 0xFF;
+    private static final int START_OF_IMAGE = 0xD8;
+    private static final int END_OF_IMAGE = 0xD9;
+    private static final int START_OF_SCAN = 0xDA;
+    private static final int TEMPORARY = 0x01;
+    private static final int FIRST_RESTART = 0xD0;
+    private static final int LAST_RESTART = 0xD7;
+
+    private final InputStream input;
+    private final FramePacer pacer;
+    private final FrameBuffer frame = new FrameBuffer();
+    private long sequence;
+    private volatile long corrupt;
+
+    /**
+     * Play a Motion JPEG file
+     *
+     * @param file The video file
+     * @param fps  Playback rate, or 0 to read frames as fast as possible
+     * @throws IOException If the file cannot be opened
+     */
+    public MjpegFrameSource(Path file, double fps) throws IOException {
+        this(Files.newInputStream(file), fps);
+    }
+
+    /**
+     * Read Motion JPEG from a stream, such as a network camera; the stream is closed with the source
+     *
+     * @param input The stream
+     * @param fps   Playback rate, or 0 to deliver frames as they arrive
+     */
+    public MjpegFrameSource(InputStream input, double fps) {
+        this.input = new BufferedInputStream(input, 64 * 1024);
+        this.pacer = new FramePacer(fps);
+    }
+
+    @Override
+    public Frame next() throws IOException {
+        while (readJpeg()) {
+            // JPEG luma is taken as stored, with no colour conversion
+            LuminanceSource luminance;
+            try {
+                luminance = ImageLoader.loadLuminance(frame.view());
+            } catch (IOException e) {
+                // The frame is already in memory, so this is a corrupt image, not a failed stream
+                luminance = null;
+            }
+            if (luminance != null) {
+                pacer.await(sequence);
+                return Frame.of(sequence++, luminance);
+            }
+            corrupt++;
+        }
+        return null;
+    }
+
+    @Override
+    public long corruptFrames() {
+        return corrupt;
+    }
+
+    /**
+     * Copy the next JPEG image, from its start marker to its end marker, into the frame buffer
+     *
+     * @return false at end of stream
+     */
+    private boolean readJpeg() throws IOException {
+        frame.reset();
+        int previous = -1;
+        int current;
+        // Skip container headers and multipart boundaries up to the start of the next image
+        while ((current = input.read()) != -1) {
+            if (previous == MARKER && current == START_OF_IMAGE) {
+                break;
+            }
+            previous = current;
+        }
+        if (current == -1) {
+            return false;
+        }
+        frame.write(MARKER);
+        frame.write(START_OF_IMAGE);
+
+        int marker = nextMarker();
+        while (marker != -1) {
+            if (marker == END_OF_IMAGE) {
+                return true;
+            }
+            if (marker == TEMPORARY || (marker >= FIRST_RESTART && marker <= LAST_RESTART)) {
+                // Markers without a segment
+                marker = nextMarker();
+                continue;
+            }
+            int high = copy();
+            int low = copy();
+            if (low == -1) {
+                return false;
+            }
+            // The length counts its own two bytes
+            for (int remaining = (high << 8 | low) - 2; remaining > 0; remaining--) {
+                if (copy() == -1) {
+                    return false;
+                }
+            }
+            marker = marker == START_OF_SCAN ? skipScan() : nextMarker();
+        }
+        // A truncated last frame is dropped
+        return false;
+    }
+
+    /**
+     * Copy the marker that should follow a segment, skipping fill bytes
+     * A corrupt image without one is ended at the next end-of-image marker instead
+     *
+     * @return The marker code, or -1 at end of stream
+     */
+    private int nextMarker() throws IOException {
+        int current = copy();
+        if (current != MARKER) {
+            return current == -1 ? -1 : skipToEnd();
+        }
+        while ((current = copy()) == MARKER) {
+            // Fill bytes
+        }
+        return current;
+    }
+
+    /**
+     * Copy entropy-coded scan data up to the marker that ends it
+     * Stuffed zero bytes and restart markers are part of the data
+     *
+     * @return The marker code, or -1 at end of stream
+     */
+    private int skipScan() throws IOException {
+        int current = copy();
+        while (current != -1) {
+            if (current != MARKER) {
+                current = copy();
+                continue;
+            }
+            current = copy();
+            while (current == MARKER) {
+                current = copy();
+            }
+            if (current != 0 && (current < FIRST_RESTART || current > LAST_RESTART)) {
+                return current;
+            }
+            current = copy();
+        }
+        return -1;
+    }
+
+    private int skipToEnd() throws IOException {
+        int previous = -1;
+        int current;
+        while ((current = copy()) != -1) {
+            if (previous == MARKER && current == END_OF_IMAGE) {
+                return END_OF_IMAGE;
+            }
+            previous = current;
+        }
+        return -1;
+    }
+
+    /**
+     * Move one byte from the stream into the frame
+     *
+     * @return The byte, or -1 at end of stream
+     */
+    private int copy() throws IOException {
+        int current = input.read();
+        if (current != -1) {
+            frame.write(current);
+        }
+        return current;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    /**
+     * Frame buffer whose contents can be decoded in place
+     */
+    private static final class FrameBuffer extends ByteArrayOutputStream {
+
+        FrameBuffer() {
+            super(256 * 1024);
+        }
+
+        ByteBuffer view() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+    }
+}
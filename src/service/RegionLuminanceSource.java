@@ -0,0 +1,72 @@
+package service;
+
+import com.google.zxing.LuminanceSource;
+
+/**
+ * View of a rectangular region of another luminance source that remembers where it sits
+ * Crops of a region are again regions of the same root source, so a binarizer can map any
+ * crop back to a black matrix that was computed once for the whole image
+ */
+class RegionLuminanceSource extends LuminanceSource {
+
+    private final LuminanceSource root;
+    private final int left;
+    private final int top;
+
+    RegionLuminanceSource(LuminanceSource root) {
+        this(root, 0, 0, root.getWidth(), root.getHeight());
+    }
+
+    private RegionLuminanceSource(LuminanceSource root, int left, int top, int width, int height) {
+        super(width, height);
+        this.root = root;
+        this.left = left;
+        this.top = top;
+    }
+
+    LuminanceSource getRoot() {
+        return root;
+    }
+
+    int getLeft() {
+        return left;
+    }
+
+    int getTop() {
+        return top;
+    }
+
+    @Override
+    public byte[] getRow(int y, byte[] row) {
+        int width = getWidth();
+        if (row == null || row.length < width) {
+            row = new byte[width];
+        }
+        byte[] full = root.getRow(top + y, null);
+        System.arraycopy(full, left, row, 0, width);
+        return row;
+    }
+
+    @Override
+    public byte[] getMatrix() {
+        int width = getWidth();
+        int height = getHeight();
+        byte[] matrix = new byte[width * height];
+        byte[] full = null;
+        for (int y = 0; y < height; y++) {
+            full = root.getRow(top + y, full);
+            System.arraycopy(full, left, matrix, y * width, width);
+        }
+        return matrix;
+    }
+
+    @Override
+    public boolean isCropSupported() {
+        return true;
+    }
+
+    @Override
+    public LuminanceSource crop(int left, int top, int width, int height) {
+        return new RegionLuminanceSource(root, this.left + left, this.top + top, width, height);
+    }
+}
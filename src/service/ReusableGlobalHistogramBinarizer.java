@@ -0,0 +1,122 @@
+package service;
+
+import com.google.zxing.Binarizer;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.GlobalHistogramBinarizer;
+
+/**
+ * {@link GlobalHistogramBinarizer} thresholding on buffers borrowed from a {@link DecodeContext}
+ * Produces exactly the same black matrix, which is reused from one image of the same size to
+ * the next, so it must not be kept beyond the decode; rows for 1D readers are the inherited ones
+ */
+final class ReusableGlobalHistogramBinarizer extends GlobalHistogramBinarizer {
+
+    private static final int LUMINANCE_BITS = 5;
+    private static final int LUMINANCE_SHIFT = 8 - LUMINANCE_BITS;
+    private static final int LUMINANCE_BUCKETS = 1 << LUMINANCE_BITS;
+
+    private final DecodeContext context;
+    private BitMatrix matrix;
+
+    ReusableGlobalHistogramBinarizer(LuminanceSource source, DecodeContext context) {
+        super(source);
+        this.context = context;
+    }
+
+    @Override
+    public BitMatrix getBlackMatrix() throws NotFoundException {
+        if (matrix != null) {
+            return matrix;
+        }
+        LuminanceSource source = getLuminanceSource();
+        int width = source.getWidth();
+        int height = source.getHeight();
+
+        // Estimate the black point from four rows first, so a flat image fails before the full read
+        int[] buckets = new int[LUMINANCE_BUCKETS];
+        byte[] row = context.row(width);
+        int right = width * 4 / 5;
+        for (int y = 1; y < 5; y++) {
+            row = source.getRow(height * y / 5, row);
+            for (int x = width / 5; x < right; x++) {
+                buckets[(row[x] & 0xFF) >> LUMINANCE_SHIFT]++;
+            }
+        }
+        int blackPoint = estimateBlackPoint(buckets);
+
+        byte[] luminances = context.packedLuminance(source);
+        BitMatrix black = context.buffers(width, height).histogramMatrix();
+        for (int y = 0; y < height; y++) {
+            int offset = y * width;
+            for (int x = 0; x < width; x++) {
+                if ((luminances[offset + x] & 0xFF) < blackPoint) {
+                    black.set(x, y);
+                }
+            }
+        }
+        matrix = black;
+        return matrix;
+    }
+
+    /**
+     * Crops and rotations are rare and may outlive this image's buffers, so they get ZXing's own
+     */
+    @Override
+    public Binarizer createBinarizer(LuminanceSource source) {
+        return new GlobalHistogramBinarizer(source);
+    }
+
+    /**
+     * Pick the valley between the two most prominent histogram peaks, nearer the light one
+     */
+    private static int estimateBlackPoint(int[] buckets) throws NotFoundException {
+        int numBuckets = buckets.length;
+        int maxBucketCount = 0;
+        int firstPeak = 0;
+        int firstPeakSize = 0;
+        for (int x = 0; x < numBuckets; x++) {
+            if (buckets[x] > firstPeakSize) {
+                firstPeak = x;
+                firstPeakSize = buckets[x];
+            }
+            if (buckets[x] > maxBucketCount) {
+                maxBucketCount = buckets[x];
+            }
+        }
+
+        // Distant second peaks are favoured by weighting with the squared distance
+        int secondPeak = 0;
+        int secondPeakScore = 0;
+        for (int x = 0; x < numBuckets; x++) {
+            int distanceToBiggest = x - firstPeak;
+            int score = buckets[x] * distanceToBiggest * distanceToBiggest;
+            if (score > secondPeakScore) {
+                secondPeak = x;
+                secondPeakScore = score;
+            }
+        }
+        if (firstPeak > secondPeak) {
+            int temp = firstPeak;
+            firstPeak = secondPeak;
+            secondPeak = temp;
+        }
+        // Too little contrast to threshold without inventing data
+        if (secondPeak - firstPeak <= numBuckets / 16) {
+            throw NotFoundException.getNotFoundInstance();
+        }
+
+        int bestValley = secondPeak - 1;
+        int bestValleyScore = -1;
+        for (int x = secondPeak - 1; x > firstPeak; x--) {
+            int fromFirst = x - firstPeak;
+            int score = fromFirst * fromFirst * (secondPeak - x) * (maxBucketCount - buckets[x]);
+            if (score > bestValleyScore) {
+                bestValley = x;
+                bestValleyScore = score;
+            }
+        }
+        return bestValley << LUMINANCE_SHIFT;
+    }
+}
@@ -0,0 +1,159 @@
+package service;
+
+import com.google.zxing.Binarizer;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.GlobalHistogramBinarizer;
+import com.google.zxing.common.HybridBinarizer;
+
+/**
+ * {@link HybridBinarizer} thresholding on buffers borrowed from a {@link DecodeContext}
+ * Produces exactly the same black matrix, but the luminance copy, the per-block black points
+ * and the matrix itself are reused from one image of the same size to the next
+ * The matrix is only valid until the context's next image of this size, so it must not be
+ * kept beyond the decode; rows for 1D readers and images too small for blocks are handled by
+ * the inherited global histogram, as in ZXing
+ */
+final class ReusableHybridBinarizer extends GlobalHistogramBinarizer {
+
+    private static final int BLOCK_SIZE_POWER = 3;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SIZE_POWER;
+    private static final int BLOCK_SIZE_MASK = BLOCK_SIZE - 1;
+    private static final int MINIMUM_DIMENSION = BLOCK_SIZE * 5;
+    private static final int MIN_DYNAMIC_RANGE = 24;
+
+    private final DecodeContext context;
+    private BitMatrix matrix;
+
+    ReusableHybridBinarizer(LuminanceSource source, DecodeContext context) {
+        super(source);
+        this.context = context;
+    }
+
+    @Override
+    public BitMatrix getBlackMatrix() throws NotFoundException {
+        if (matrix != null) {
+            return matrix;
+        }
+        LuminanceSource source = getLuminanceSource();
+        int width = source.getWidth();
+        int height = source.getHeight();
+        if (width < MINIMUM_DIMENSION || height < MINIMUM_DIMENSION) {
+            matrix = super.getBlackMatrix();
+            return matrix;
+        }
+
+        byte[] luminances = context.packedLuminance(source);
+        DecodeContext.Buffers buffers = context.buffers(width, height);
+        int subWidth = (width >> BLOCK_SIZE_POWER) + ((width & BLOCK_SIZE_MASK) != 0 ? 1 : 0);
+        int subHeight = (height >> BLOCK_SIZE_POWER) + ((height & BLOCK_SIZE_MASK) != 0 ? 1 : 0);
+        int[] blackPoints = buffers.blackPoints(subWidth * subHeight);
+        calculateBlackPoints(luminances, subWidth, subHeight, width, height, blackPoints);
+        BitMatrix black = buffers.matrix();
+        calculateThresholdForBlock(luminances, subWidth, subHeight, width, height, blackPoints, black);
+        matrix = black;
+        return matrix;
+    }
+
+    /**
+     * Crops and rotations are rare and may outlive this image's buffers, so they get ZXing's own
+     */
+    @Override
+    public Binarizer createBinarizer(LuminanceSource source) {
+        return new HybridBinarizer(source);
+    }
+
+    /**
+     * Threshold each block against the average black point of the 5x5 blocks around it
+     */
+    private static void calculateThresholdForBlock(byte[] luminances, int subWidth, int subHeight, int width,
+                                                   int height, int[] blackPoints, BitMatrix matrix) {
+        int maxYOffset = height - BLOCK_SIZE;
+        int maxXOffset = width - BLOCK_SIZE;
+        for (int y = 0; y < subHeight; y++) {
+            int yoffset = Math.min(y << BLOCK_SIZE_POWER, maxYOffset);
+            int top = cap(y, subHeight - 3);
+            for (int x = 0; x < subWidth; x++) {
+                int xoffset = Math.min(x << BLOCK_SIZE_POWER, maxXOffset);
+                int left = cap(x, subWidth - 3);
+                int sum = 0;
+                for (int z = -2; z <= 2; z++) {
+                    int rowStart = (top + z) * subWidth + left;
+                    sum += blackPoints[rowStart - 2] + blackPoints[rowStart - 1] + blackPoints[rowStart]
+                            + blackPoints[rowStart + 1] + blackPoints[rowStart + 2];
+                }
+                thresholdBlock(luminances, xoffset, yoffset, sum / 25, width, matrix);
+            }
+        }
+    }
+
+    private static int cap(int value, int max) {
+        return value < 2 ? 2 : Math.min(value, max);
+    }
+
+    private static void thresholdBlock(byte[] luminances, int xoffset, int yoffset, int threshold, int stride,
+                                       BitMatrix matrix) {
+        for (int y = 0, offset = yoffset * stride + xoffset; y < BLOCK_SIZE; y++, offset += stride) {
+            for (int x = 0; x < BLOCK_SIZE; x++) {
+                // <= so that pure black stays black even when the threshold is 0
+                if ((luminances[offset + x] & 0xFF) <= threshold) {
+                    matrix.set(xoffset + x, yoffset + y);
+                }
+            }
+        }
+    }
+
+    /**
+     * Estimate a black point per block; low-contrast blocks borrow from their neighbours
+     */
+    private static void calculateBlackPoints(byte[] luminances, int subWidth, int subHeight, int width,
+                                             int height, int[] blackPoints) {
+        int maxYOffset = height - BLOCK_SIZE;
+        int maxXOffset = width - BLOCK_SIZE;
+        for (int y = 0; y < subHeight; y++) {
+            int yoffset = Math.min(y << BLOCK_SIZE_POWER, maxYOffset);
+            for (int x = 0; x < subWidth; x++) {
+                int xoffset = Math.min(x << BLOCK_SIZE_POWER, maxXOffset);
+                int sum = 0;
+                int min = 0xFF;
+                int max = 0;
+                for (int yy = 0, offset = yoffset * width + xoffset; yy < BLOCK_SIZE; yy++, offset += width) {
+                    for (int xx = 0; xx < BLOCK_SIZE; xx++) {
+                        int pixel = luminances[offset + xx] & 0xFF;
+                        sum += pixel;
+                        if (pixel < min) {
+                            min = pixel;
+                        }
+                        if (pixel > max) {
+                            max = pixel;
+                        }
+                    }
+                    if (max - min > MIN_DYNAMIC_RANGE) {
+                        // Contrast is established; only the sum is still needed
+                        for (yy++, offset += width; yy < BLOCK_SIZE; yy++, offset += width) {
+                            for (int xx = 0; xx < BLOCK_SIZE; xx++) {
+                                sum += luminances[offset + xx] & 0xFF;
+                            }
+                        }
+                    }
+                }
+
+                int average = sum >> (BLOCK_SIZE_POWER * 2);
+                if (max - min <= MIN_DYNAMIC_RANGE) {
+                    // A flat block is assumed to be background, unless its neighbours say otherwise
+                    average = min / 2;
+                    if (y > 0 && x > 0) {
+                        int index = y * subWidth + x;
+                        int averageNeighborBlackPoint = (blackPoints[index - subWidth] + 2 * blackPoints[index - 1]
+                                + blackPoints[index - subWidth - 1]) / 4;
+                        if (min < averageNeighborBlackPoint) {
+                            average = averageNeighborBlackPoint;
+                        }
+                    }
+                }
+                blackPoints[y * subWidth + x] = average;
+            }
+        }
+    }
+}
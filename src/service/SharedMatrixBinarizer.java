@@ -0,0 +1,80 @@
+package service;
+
+import com.google.zxing.Binarizer;
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.common.HybridBinarizer;
+
+/**
+ * Binarizer that serves a black matrix computed once for the whole image
+ * Crops made by multi-code readers copy bits out of the shared matrix instead of
+ * thresholding the image again; anything that is not a crop (e.g. a rotation) falls back
+ * to a fresh {@link HybridBinarizer}
+ */
+class SharedMatrixBinarizer extends Binarizer {
+
+    private final BitMatrix shared;
+    private final int left;
+    private final int top;
+    private BitMatrix region;
+
+    /**
+     * Serve the part of a precomputed matrix covered by a source region
+     *
+     * @param source A region of the full image; its offset selects the bits to serve
+     * @param shared The black matrix for the full image
+     */
+    SharedMatrixBinarizer(RegionLuminanceSource source, BitMatrix shared) {
+        super(source);
+        this.shared = shared;
+        this.left = source.getLeft();
+        this.top = source.getTop();
+    }
+
+    @Override
+    public BitArray getBlackRow(int y, BitArray row) {
+        int width = getWidth();
+        if (row == null || row.getSize() < width) {
+            row = new BitArray(width);
+        } else {
+            row.clear();
+        }
+        for (int x = 0; x < width; x++) {
+            if (shared.get(left + x, top + y)) {
+                row.set(x);
+            }
+        }
+        return row;
+    }
+
+    @Override
+    public BitMatrix getBlackMatrix() {
+        if (left == 0 && top == 0 && getWidth() == shared.getWidth() && getHeight() == shared.getHeight()) {
+            return shared;
+        }
+        if (region == null) {
+            int width = getWidth();
+            int height = getHeight();
+            BitMatrix copy = new BitMatrix(width, height);
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    if (shared.get(left + x, top + y)) {
+                        copy.set(x, y);
+                    }
+                }
+            }
+            region = copy;
+        }
+        return region;
+    }
+
+    @Override
+    public Binarizer createBinarizer(LuminanceSource source) {
+        if (source instanceof RegionLuminanceSource regionSource
+                && regionSource.getRoot() == ((RegionLuminanceSource) getLuminanceSource()).getRoot()) {
+            return new SharedMatrixBinarizer(regionSource, shared);
+        }
+        return new HybridBinarizer(source);
+    }
+}
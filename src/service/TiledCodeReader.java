@@ -0,0 +1,255 @@
+package service;
+
+import com.google.zxing.LuminanceSource;
+import com.google.zxing.NotFoundException;
+import com.google.zxing.Result;
+import com.google.zxing.client.j2se.BufferedImageLuminanceSource;
+import com.google.zxing.common.BitMatrix;
+import model.CodeFormat;
+import model.DecodeResult;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import java.awt.Rectangle;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Decorator that decodes very large images region by region with bounded memory
+ * The image is never loaded whole: {@link ImageReader} source regions of at most a fixed
+ * number of pixels are read one at a time, searched, and released before the next is read
+ * Regions overlap so that a code cut by one boundary is whole in a neighbouring region;
+ * duplicates found in the overlap are merged
+ * Regions are full-width bands where the budget allows, so sequential formats such as PNG
+ * and JPEG are decoded from the start as few times as possible
+ */
+public class TiledCodeReader implements ICodeReader {
+
+    private static final long DEFAULT_MAX_REGION_PIXELS = 8L * 1024 * 1024;
+    private static final int DEFAULT_OVERLAP = 256;
+
+    // Regions are never narrower or shorter than this, except at the image edge
+    private static final int MIN_REGION_SIZE = 1024;
+
+    private final AbstractCodeReader delegate;
+    private final long maxRegionPixels;
+    private final int overlap;
+
+    /**
+     * Wrap a reader with the default budget of 8 megapixels per region and 256 px overlap
+     *
+     * @param delegate The reader that decodes each region
+     */
+    public TiledCodeReader(AbstractCodeReader delegate) {
+        this(delegate, DEFAULT_MAX_REGION_PIXELS, DEFAULT_OVERLAP);
+    }
+
+    /**
+     * Wrap a reader with an explicit memory budget
+     * Peak pixel memory per image is roughly 5 bytes per region pixel
+     *
+     * @param delegate        The reader that decodes each region
+     * @param maxRegionPixels Largest region read at once, at least 1024 x 1024
+     * @param overlap         Pixels shared by neighbouring regions; should exceed the largest code
+     */
+    public TiledCodeReader(AbstractCodeReader delegate, long maxRegionPixels, int overlap) {
+        if (delegate == null) {
+            throw new IllegalArgumentException("Reader cannot be null");
+        }
+        if (maxRegionPixels < (long) MIN_REGION_SIZE * MIN_REGION_SIZE) {
+            throw new IllegalArgumentException("Region budget must be at least "
+                    + MIN_REGION_SIZE + " x " + MIN_REGION_SIZE + " pixels");
+        }
+        if (overlap < 0 || overlap > MIN_REGION_SIZE / 2) {
+            throw new IllegalArgumentException("Overlap must be between 0 and " + MIN_REGION_SIZE / 2);
+        }
+        this.delegate = delegate;
+        this.maxRegionPixels = maxRegionPixels;
+        this.overlap = overlap;
+    }
+
+    @Override
+    public String readCode(String filePath) throws IOException, NotFoundException {
+        return readResult(filePath).text();
+    }
+
+    @Override
+    public DecodeResult readResult(String filePath) throws IOException, NotFoundException {
+        long start = System.nanoTime();
+        try (ImageInputStream input = ImageIO.createImageInputStream(new File(filePath))) {
+            return first(scan(input, true), start);
+        }
+    }
+
+    @Override
+    public DecodeResult readResult(byte[] imageData) throws IOException, NotFoundException {
+        return readResult(new ByteArrayInputStream(imageData));
+    }
+
+    @Override
+    public DecodeResult readResult(ByteBuffer imageData) throws IOException, NotFoundException {
+        ByteBuffer view = imageData.duplicate();
+        if (view.hasArray()) {
+            return readResult(new ByteArrayInputStream(view.array(),
+                    view.arrayOffset() + view.position(), view.remaining()));
+        }
+        // Only the encoded bytes are copied; they are small next to the decoded pixels
+        byte[] encoded = new byte[view.remaining()];
+        view.get(encoded);
+        return readResult(encoded);
+    }
+
+    @Override
+    public DecodeResult readResult(InputStream imageStream) throws IOException, NotFoundException {
+        long start = System.nanoTime();
+        // Regions are read out of order, so the encoded stream is kept in memory (not on disk)
+        try (ImageInputStream input = new MemoryCacheImageInputStream(imageStream)) {
+            return first(scan(input, true), start);
+        }
+    }
+
+    /**
+     * Raw planes are already in memory and are passed straight through
+     */
+    @Override
+    public DecodeResult readLuminance(byte[] luminance, int width, int height, int stride)
+            throws NotFoundException {
+        return delegate.readLuminance(luminance, width, height, stride);
+    }
+
+    @Override
+    public DecodeResult readLuminance(ByteBuffer luminance, int width, int height, int stride)
+            throws NotFoundException {
+        return delegate.readLuminance(luminance, width, height, stride);
+    }
+
+    @Override
+    public DecodeResult readMatrix(BitMatrix matrix) throws NotFoundException {
+        return delegate.readMatrix(matrix);
+    }
+
+    @Override
+    public List<DecodeResult> readMultiple(String filePath) throws IOException, NotFoundException {
+        long start = System.nanoTime();
+        try (ImageInputStream input = ImageIO.createImageInputStream(new File(filePath))) {
+            return all(scan(input, false), start);
+        }
+    }
+
+    @Override
+    public List<DecodeResult> readMultiple(byte[] imageData) throws IOException, NotFoundException {
+        long start = System.nanoTime();
+        try (ImageInputStream input = new MemoryCacheImageInputStream(new ByteArrayInputStream(imageData))) {
+            return all(scan(input, false), start);
+        }
+    }
+
+    @Override
+    public CodeFormat getFormat() {
+        return delegate.getFormat();
+    }
+
+    /**
+     * Read and search the image region by region
+     *
+     * @param input     The encoded image
+     * @param firstOnly Stop after the first region that contains a code
+     * @return Distinct results in image coordinates
+     */
+    private List<Result> scan(ImageInputStream input, boolean firstOnly) throws IOException {
+        if (input == null) {
+            throw new IOException("Unable to read image file");
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
+            throw new IOException("Unable to read image file");
+        }
+
+        ImageReader reader = readers.next();
+        try {
+            reader.setInput(input, false, true);
+            int width = reader.getWidth(0);
+            int height = reader.getHeight(0);
+
+            int regionWidth = width;
+            int regionHeight = height;
+            if ((long) width * height > maxRegionPixels) {
+                regionHeight = (int) Math.min(height, maxRegionPixels / width);
+                if (regionHeight < MIN_REGION_SIZE) {
+                    // Too wide for full-width bands; split columns as well
+                    int side = (int) Math.sqrt((double) maxRegionPixels);
+                    regionWidth = Math.min(width, side);
+                    regionHeight = Math.min(height, side);
+                }
+            }
+
+            List<Result> found = new ArrayList<>();
+            for (int top : starts(height, regionHeight)) {
+                for (int left : starts(width, regionWidth)) {
+                    Rectangle region = new Rectangle(left, top,
+                            Math.min(regionWidth, width - left), Math.min(regionHeight, height - top));
+                    AbstractCodeReader.addDistinct(found, searchRegion(reader, region));
+                    if (firstOnly && !found.isEmpty()) {
+                        return found;
+                    }
+                }
+            }
+            return found;
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    private List<Result> searchRegion(ImageReader reader, Rectangle region) throws IOException {
+        ImageReadParam param = reader.getDefaultReadParam();
+        param.setSourceRegion(region);
+        // Only the grayscale copy is kept; the decoded region is garbage once this returns
+        LuminanceSource source = new BufferedImageLuminanceSource(reader.read(0, param));
+
+        List<Result> translated = new ArrayList<>();
+        for (Result result : delegate.findAll(source)) {
+            translated.add(AbstractCodeReader.translate(result, region.x, region.y));
+        }
+        return translated;
+    }
+
+    /**
+     * Start offsets of overlapping regions along one axis, the last one ending at the edge
+     */
+    private List<Integer> starts(int length, int regionLength) {
+        List<Integer> starts = new ArrayList<>();
+        int step = regionLength - overlap;
+        int position = 0;
+        while (true) {
+            starts.add(position);
+            if (position + regionLength >= length) {
+                return starts;
+            }
+            position += step;
+        }
+    }
+
+    private static DecodeResult first(List<Result> found, long start) throws NotFoundException {
+        if (found.isEmpty()) {
+            throw NotFoundException.getNotFoundInstance();
+        }
+        return DecodeResult.from(found.get(0), System.nanoTime() - start);
+    }
+
+    private static List<DecodeResult> all(List<Result> found, long start) throws NotFoundException {
+        if (found.isEmpty()) {
+            throw NotFoundException.getNotFoundInstance();
+        }
+        long elapsed = System.nanoTime() - start;
+        return found.stream().map(result -> DecodeResult.from(result, elapsed)).toList();
+    }
+}
@@ -0,0 +1,197 @@
+package service;
+
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.BitMatrix;
+import model.VectorFormat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes a {@link BitMatrix} as a vector document (SVG, PDF or EPS) without rasterising it
+ * Dark modules are merged into rectangles: horizontal runs first, then identical runs in
+ * consecutive rows, so a 1D barcode becomes one rectangle per bar and the path count stays small
+ * One matrix unit maps to one user unit (SVG) or one point (PDF, EPS); the output scales to any size
+ */
+public final class VectorCodeWriter {
+
+    private VectorCodeWriter() {
+    }
+
+    /**
+     * Write a matrix in the given vector format
+     * The stream is flushed but not closed
+     *
+     * @param matrix       The matrix to render; set bits are black
+     * @param vectorFormat The output format
+     * @param out          The stream to write to
+     * @throws IOException If writing fails
+     */
+    public static void write(BitMatrix matrix, VectorFormat vectorFormat, OutputStream out) throws IOException {
+        List<int[]> rectangles = mergeModules(matrix);
+        switch (vectorFormat) {
+            case SVG -> writeSvg(matrix, rectangles, out);
+            case PDF -> writePdf(matrix, rectangles, out);
+            case EPS -> writeEps(matrix, rectangles, out);
+        }
+        out.flush();
+    }
+
+    /**
+     * Merge dark modules into rectangles
+     *
+     * @param matrix The matrix to scan
+     * @return Rectangles as {x, y, width, height}, in matrix units with y growing downwards
+     */
+    static List<int[]> mergeModules(BitMatrix matrix) {
+        int width = matrix.getWidth();
+        List<int[]> rectangles = new ArrayList<>();
+        Map<Long, int[]> open = new HashMap<>();
+        BitArray row = new BitArray(width);
+
+        for (int y = 0; y < matrix.getHeight(); y++) {
+            row = matrix.getRow(y, row);
+            Map<Long, int[]> next = new HashMap<>();
+            int x = row.getNextSet(0);
+            while (x < width) {
+                int end = row.getNextUnset(x);
+                long key = (long) x << 32 | (end - x);
+                // Extend the rectangle above if it covers exactly the same run
+                int[] rectangle = open.remove(key);
+                if (rectangle != null) {
+                    rectangle[3]++;
+                } else {
+                    rectangle = new int[]{x, y, end - x, 1};
+                    rectangles.add(rectangle);
+                }
+                next.put(key, rectangle);
+                x = end < width ? row.getNextSet(end) : width;
+            }
+            open = next;
+        }
+        return rectangles;
+    }
+
+    private static void writeSvg(BitMatrix matrix, List<int[]> rectangles, OutputStream out) throws IOException {
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        StringBuilder svg = new StringBuilder(64 + rectangles.size() * 24);
+        svg.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<svg xmlns=\"http://www.w3.org/2000/svg\" version=\"1.1\" viewBox=\"0 0 ")
+                .append(width).append(' ').append(height)
+                .append("\" width=\"").append(width).append("\" height=\"").append(height)
+                .append("\" shape-rendering=\"crispEdges\">\n")
+                .append("<rect width=\"").append(width).append("\" height=\"").append(height)
+                .append("\" fill=\"#ffffff\"/>\n")
+                .append("<path fill=\"#000000\" d=\"");
+        for (int[] r : rectangles) {
+            svg.append('M').append(r[0]).append(' ').append(r[1])
+                    .append('h').append(r[2]).append('v').append(r[3])
+                    .append('h').append(-r[2]).append('z');
+        }
+        svg.append("\"/>\n</svg>\n");
+        out.write(svg.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeEps(BitMatrix matrix, List<int[]> rectangles, OutputStream out) throws IOException {
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+        StringBuilder eps = new StringBuilder(128 + rectangles.size() * 20);
+        eps.append("%!PS-Adobe-3.0 EPSF-3.0\n")
+                .append("%%BoundingBox: 0 0 ").append(width).append(' ').append(height).append('\n')
+                .append("%%LanguageLevel: 2\n")
+                .append("%%EndComments\n")
+                .append("/r { rectfill } bind def\n")
+                .append("1 setgray 0 0 ").append(width).append(' ').append(height).append(" r\n")
+                .append("0 setgray\n");
+        appendFlippedRectangles(eps, rectangles, height, " r\n");
+        eps.append("showpage\n%%EOF\n");
+        out.write(eps.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void writePdf(BitMatrix matrix, List<int[]> rectangles, OutputStream out) throws IOException {
+        int width = matrix.getWidth();
+        int height = matrix.getHeight();
+
+        StringBuilder content = new StringBuilder(64 + rectangles.size() * 20);
+        content.append("1 g 0 0 ").append(width).append(' ').append(height).append(" re f\n0 g\n");
+        appendFlippedRectangles(content, rectangles, height, " re\n");
+        content.append("f\n");
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflater = new DeflaterOutputStream(compressed)) {
+            deflater.write(content.toString().getBytes(StandardCharsets.US_ASCII));
+        }
+
+        PdfBuilder pdf = new PdfBuilder();
+        pdf.object("<< /Type /Catalog /Pages 2 0 R >>");
+        pdf.object("<< /Type /Pages /Kids [3 0 R] /Count 1 >>");
+        pdf.object("<< /Type /Page /Parent 2 0 R /MediaBox [0 0 " + width + " " + height
+                + "] /Resources << >> /Contents 4 0 R >>");
+        pdf.stream("<< /Length " + compressed.size() + " /Filter /FlateDecode >>", compressed.toByteArray());
+        pdf.writeTo(out);
+    }
+
+    private static void appendFlippedRectangles(StringBuilder target, List<int[]> rectangles, int height,
+                                                String operator) {
+        // PostScript and PDF put the origin at the bottom left
+        for (int[] r : rectangles) {
+            target.append(r[0]).append(' ').append(height - r[1] - r[3]).append(' ')
+                    .append(r[2]).append(' ').append(r[3]).append(operator);
+        }
+    }
+
+    /**
+     * Minimal single-page PDF assembler that tracks object offsets for the xref table
+     */
+    private static final class PdfBuilder {
+
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private final List<Integer> offsets = new ArrayList<>();
+
+        PdfBuilder() {
+            ascii("%PDF-1.4\n");
+        }
+
+        void object(String dictionary) {
+            begin();
+            ascii(dictionary + "\nendobj\n");
+        }
+
+        void stream(String dictionary, byte[] data) {
+            begin();
+            ascii(dictionary + "\nstream\n");
+            body.writeBytes(data);
+            ascii("\nendstream\nendobj\n");
+        }
+
+        private void begin() {
+            offsets.add(body.size());
+            ascii(offsets.size() + " 0 obj\n");
+        }
+
+        void writeTo(OutputStream out) throws IOException {
+            int xref = body.size();
+            StringBuilder trailer = new StringBuilder("xref\n0 ").append(offsets.size() + 1).append('\n');
+            trailer.append("0000000000 65535 f \n");
+            for (int offset : offsets) {
+                trailer.append(String.format("%010d 00000 n \n", offset));
+            }
+            trailer.append("trailer\n<< /Size ").append(offsets.size() + 1).append(" /Root 1 0 R >>\n")
+                    .append("startxref\n").append(xref).append("\n%%EOF\n");
+            ascii(trailer.toString());
+            body.writeTo(out);
+        }
+
+        private void ascii(String text) {
+            body.writeBytes(text.getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+}
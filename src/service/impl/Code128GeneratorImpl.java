@@ -1,26 +1,34 @@
 package service.impl;
 
 import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
 import com.google.zxing.WriterException;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.oned.Code128Writer;
 import model.CodeFormat;
 import service.AbstractCodeGenerator;
 
+import java.util.Map;
+
 /**
  * Concrete implementation for Code 128 barcode generation
  * Follows Single Responsibility Principle (SRP)
  */
 public class Code128GeneratorImpl extends AbstractCodeGenerator {
 
+    private final Code128Writer writer = new Code128Writer();
+
     public Code128GeneratorImpl() {
-        super(CodeFormat.CODE_128, BarcodeFormat.CODE_128);
+        this(Map.of());
+    }
+
+    public Code128GeneratorImpl(Map<EncodeHintType, ?> hints) {
+        super(CodeFormat.CODE_128, BarcodeFormat.CODE_128, hints);
     }
 
     @Override
     protected BitMatrix encode(String data, int width, int height) throws WriterException {
-        Code128Writer writer = new Code128Writer();
-        return writer.encode(data, barcodeFormat, width, height);
+        return writer.encode(data, barcodeFormat, width, height, hints);
     }
 
     @Override
@@ -1,12 +1,15 @@
 package service.impl;
 
 import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
 import com.google.zxing.WriterException;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.oned.Code39Writer;
 import model.CodeFormat;
 import service.AbstractCodeGenerator;
 
+import java.util.Map;
+
 /**
  * Concrete implementation for Code 39 barcode generation
  * Follows Single Responsibility Principle (SRP)
@@ -15,14 +18,19 @@ public class Code39GeneratorImpl extends AbstractCodeGenerator {
 
     private static final String VALID_CHARS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ-. $/+%";
 
+    private final Code39Writer writer = new Code39Writer();
+
     public Code39GeneratorImpl() {
-        super(CodeFormat.CODE_39, BarcodeFormat.CODE_39);
+        this(Map.of());
+    }
+
+    public Code39GeneratorImpl(Map<EncodeHintType, ?> hints) {
+        super(CodeFormat.CODE_39, BarcodeFormat.CODE_39, hints);
     }
 
     @Override
     protected BitMatrix encode(String data, int width, int height) throws WriterException {
-        Code39Writer writer = new Code39Writer();
-        return writer.encode(data, barcodeFormat, width, height);
+        return writer.encode(data, barcodeFormat, width, height, hints);
     }
 
     @Override
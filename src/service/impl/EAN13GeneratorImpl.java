@@ -1,26 +1,34 @@
 package service.impl;
 
 import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
 import com.google.zxing.WriterException;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.oned.EAN13Writer;
 import model.CodeFormat;
 import service.AbstractCodeGenerator;
 
+import java.util.Map;
+
 /**
  * Concrete implementation for EAN-13 barcode generation
  * Follows Single Responsibility Principle (SRP)
  */
 public class EAN13GeneratorImpl extends AbstractCodeGenerator {
 
+    private final EAN13Writer writer = new EAN13Writer();
+
     public EAN13GeneratorImpl() {
-        super(CodeFormat.EAN_13, BarcodeFormat.EAN_13);
+        this(Map.of());
+    }
+
+    public EAN13GeneratorImpl(Map<EncodeHintType, ?> hints) {
+        super(CodeFormat.EAN_13, BarcodeFormat.EAN_13, hints);
     }
 
     @Override
     protected BitMatrix encode(String data, int width, int height) throws WriterException {
-        EAN13Writer writer = new EAN13Writer();
-        return writer.encode(data, barcodeFormat, width, height);
+        return writer.encode(data, barcodeFormat, width, height, hints);
     }
 
     @Override
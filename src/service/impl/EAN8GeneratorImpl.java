@@ -1,26 +1,34 @@
 package service.impl;
 
 import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
 import com.google.zxing.WriterException;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.oned.EAN8Writer;
 import model.CodeFormat;
 import service.AbstractCodeGenerator;
 
+import java.util.Map;
+
 /**
  * Concrete implementation for EAN-8 barcode generation
  * Follows Single Responsibility Principle (SRP)
  */
 public class EAN8GeneratorImpl extends AbstractCodeGenerator {
 
+    private final EAN8Writer writer = new EAN8Writer();
+
     public EAN8GeneratorImpl() {
-        super(CodeFormat.EAN_8, BarcodeFormat.EAN_8);
+        this(Map.of());
+    }
+
+    public EAN8GeneratorImpl(Map<EncodeHintType, ?> hints) {
+        super(CodeFormat.EAN_8, BarcodeFormat.EAN_8, hints);
     }
 
     @Override
     protected BitMatrix encode(String data, int width, int height) throws WriterException {
-        EAN8Writer writer = new EAN8Writer();
-        return writer.encode(data, barcodeFormat, width, height);
+        return writer.encode(data, barcodeFormat, width, height, hints);
     }
 
     @Override
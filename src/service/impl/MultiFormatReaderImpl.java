@@ -1,11 +1,17 @@
 package service.impl;
 
 import com.google.zxing.BinaryBitmap;
+import com.google.zxing.DecodeHintType;
 import com.google.zxing.MultiFormatReader;
 import com.google.zxing.NotFoundException;
+import com.google.zxing.Reader;
 import com.google.zxing.Result;
+import model.ReaderConfig;
 import service.AbstractCodeReader;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 /**
  * Concrete implementation for multi-format code reading
  * Can read QR codes and various barcode formats
@@ -13,13 +19,40 @@ import service.AbstractCodeReader;
  */
 public class MultiFormatReaderImpl extends AbstractCodeReader {
 
+    // MultiFormatReader is stateful, so each thread keeps its own per pass with the delegate list built once
+    private final Map<DecodePass, ThreadLocal<MultiFormatReader>> readers = new EnumMap<>(DecodePass.class);
+
     public MultiFormatReaderImpl() {
-        super(null); // null indicates multi-format support
+        this(ReaderConfig.allFormats());
+    }
+
+    public MultiFormatReaderImpl(ReaderConfig config) {
+        super(config.singleFormat(), config); // null format indicates multi-format support
+        for (DecodePass pass : DecodePass.values()) {
+            Map<DecodeHintType, Object> passHints = hints(pass);
+            readers.put(pass, ThreadLocal.withInitial(() -> newReader(passHints)));
+        }
     }
 
     @Override
-    protected Result decode(BinaryBitmap binaryBitmap) throws NotFoundException {
+    protected Result decode(BinaryBitmap binaryBitmap, DecodePass pass) throws NotFoundException {
+        MultiFormatReader reader = readers.get(pass).get();
+        try {
+            // decodeWithState reuses the hints and delegate readers set up above
+            return reader.decodeWithState(binaryBitmap);
+        } finally {
+            reader.reset();
+        }
+    }
+
+    private static MultiFormatReader newReader(Map<DecodeHintType, ?> hints) {
         MultiFormatReader reader = new MultiFormatReader();
-        return reader.decode(binaryBitmap);
+        reader.setHints(hints);
+        return reader;
+    }
+
+    @Override
+    protected Reader engine() {
+        return new MultiFormatReader();
     }
 }
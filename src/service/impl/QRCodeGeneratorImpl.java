@@ -1,26 +1,34 @@
 package service.impl;
 
 import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
 import com.google.zxing.WriterException;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.QRCodeWriter;
 import model.CodeFormat;
 import service.AbstractCodeGenerator;
 
+import java.util.Map;
+
 /**
  * Concrete implementation for QR Code generation
  * Follows Single Responsibility Principle (SRP)
  */
 public class QRCodeGeneratorImpl extends AbstractCodeGenerator {
 
+    private final QRCodeWriter writer = new QRCodeWriter();
+
     public QRCodeGeneratorImpl() {
-        super(CodeFormat.QR_CODE, BarcodeFormat.QR_CODE);
+        this(Map.of());
+    }
+
+    public QRCodeGeneratorImpl(Map<EncodeHintType, ?> hints) {
+        super(CodeFormat.QR_CODE, BarcodeFormat.QR_CODE, hints);
     }
 
     @Override
     protected BitMatrix encode(String data, int width, int height) throws WriterException {
-        QRCodeWriter writer = new QRCodeWriter();
-        return writer.encode(data, barcodeFormat, width, height);
+        return writer.encode(data, barcodeFormat, width, height, hints);
     }
 
     @Override
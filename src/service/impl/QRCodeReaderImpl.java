@@ -4,9 +4,11 @@ import com.google.zxing.BinaryBitmap;
 import com.google.zxing.ChecksumException;
 import com.google.zxing.FormatException;
 import com.google.zxing.NotFoundException;
+import com.google.zxing.Reader;
 import com.google.zxing.Result;
 import com.google.zxing.qrcode.QRCodeReader;
 import model.CodeFormat;
+import model.ReaderConfig;
 import service.AbstractCodeReader;
 
 /**
@@ -15,18 +17,32 @@ import service.AbstractCodeReader;
  */
 public class QRCodeReaderImpl extends AbstractCodeReader {
 
+    private final ThreadLocal<QRCodeReader> readers = ThreadLocal.withInitial(QRCodeReader::new);
+
     public QRCodeReaderImpl() {
-        super(CodeFormat.QR_CODE);
+        this(ReaderConfig.forFormats(CodeFormat.QR_CODE));
+    }
+
+    public QRCodeReaderImpl(ReaderConfig config) {
+        super(CodeFormat.QR_CODE, config);
+        if (config.singleFormat() != CodeFormat.QR_CODE) {
+            throw new IllegalArgumentException("QR code reader can only be configured for QR codes");
+        }
     }
 
     @Override
-    protected Result decode(BinaryBitmap binaryBitmap) throws NotFoundException {
-        QRCodeReader reader = new QRCodeReader();
+    protected Result decode(BinaryBitmap binaryBitmap, DecodePass pass) throws NotFoundException {
+        QRCodeReader reader = readers.get();
         try {
-            return reader.decode(binaryBitmap);
+            return reader.decode(binaryBitmap, hints(pass));
         } catch (ChecksumException | FormatException e) {
             // Convert to NotFoundException for consistent error handling
             throw NotFoundException.getNotFoundInstance();
         }
     }
+
+    @Override
+    protected Reader engine() {
+        return new QRCodeReader();
+    }
 }
@@ -1,26 +1,34 @@
 package service.impl;
 
 import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
 import com.google.zxing.WriterException;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.oned.UPCAWriter;
 import model.CodeFormat;
 import service.AbstractCodeGenerator;
 
+import java.util.Map;
+
 /**
  * Concrete implementation for UPC-A barcode generation
  * Follows Single Responsibility Principle (SRP)
  */
 public class UPCAGeneratorImpl extends AbstractCodeGenerator {
 
+    private final UPCAWriter writer = new UPCAWriter();
+
     public UPCAGeneratorImpl() {
-        super(CodeFormat.UPC_A, BarcodeFormat.UPC_A);
+        this(Map.of());
+    }
+
+    public UPCAGeneratorImpl(Map<EncodeHintType, ?> hints) {
+        super(CodeFormat.UPC_A, BarcodeFormat.UPC_A, hints);
     }
 
     @Override
     protected BitMatrix encode(String data, int width, int height) throws WriterException {
-        UPCAWriter writer = new UPCAWriter();
-        return writer.encode(data, barcodeFormat, width, height);
+        return writer.encode(data, barcodeFormat, width, height, hints);
     }
 
     @Override
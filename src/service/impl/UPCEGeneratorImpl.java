@@ -1,26 +1,34 @@
 package service.impl;
 
 import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
 import com.google.zxing.WriterException;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.oned.UPCEWriter;
 import model.CodeFormat;
 import service.AbstractCodeGenerator;
 
+import java.util.Map;
+
 /**
  * Concrete implementation for UPC-E barcode generation
  * Follows Single Responsibility Principle (SRP)
  */
 public class UPCEGeneratorImpl extends AbstractCodeGenerator {
 
+    private final UPCEWriter writer = new UPCEWriter();
+
     public UPCEGeneratorImpl() {
-        super(CodeFormat.UPC_E, BarcodeFormat.UPC_E);
+        this(Map.of());
+    }
+
+    public UPCEGeneratorImpl(Map<EncodeHintType, ?> hints) {
+        super(CodeFormat.UPC_E, BarcodeFormat.UPC_E, hints);
     }
 
     @Override
     protected BitMatrix encode(String data, int width, int height) throws WriterException {
-        UPCEWriter writer = new UPCEWriter();
-        return writer.encode(data, barcodeFormat, width, height);
+        return writer.encode(data, barcodeFormat, width, height, hints);
     }
 
     @Override